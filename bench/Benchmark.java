@@ -0,0 +1,125 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Benchmark: a tiny JMH-style harness with no dependencies beyond the JDK.
+ * - Warms the operation up, then runs several timed iterations of fixed wall-clock length.
+ * - Reports throughput (ops/s, ns/op) as mean +- half the min/max spread across iterations.
+ * - Reports allocation per operation and allocation rate, read from the per-thread allocation
+ *   counter of the HotSpot ThreadMXBean (what JMH's "-prof gc" shows as gc.alloc.rate.norm).
+ *
+ * Keep the measured code honest: feed results to consume(...) so the JIT can't drop them.
+ */
+public class Benchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static volatile long sink;   // blackhole
+
+    private int warmupIterations = 3;
+    private int measureIterations = 5;
+    private long iterationNanos = 1_000_000_000L;
+
+    public Benchmark() {
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    public Benchmark iterations(int warmup, int measure, long iterationMs) {
+        warmupIterations = Math.max(0, warmup);
+        measureIterations = Math.max(1, measure);
+        iterationNanos = Math.max(1L, iterationMs) * 1_000_000L;
+        return this;
+    }
+
+    /** Sink for benchmark results so the JIT cannot eliminate the work that produced them. */
+    public static void consume(long value) {
+        sink ^= value;
+    }
+
+    public static void consume(boolean value) {
+        sink ^= value ? 1 : 0;
+    }
+
+    public static void consume(Object value) {
+        sink ^= System.identityHashCode(value);
+    }
+
+    /** Results of one benchmark run. */
+    public static final class Result {
+        public final String name;
+        public final double opsPerSec;
+        public final double opsError;
+        public final double bytesPerOp;
+        public final double allocMbPerSec;
+
+        Result(String name, double opsPerSec, double opsError, double bytesPerOp, double allocMbPerSec) {
+            this.name = name;
+            this.opsPerSec = opsPerSec;
+            this.opsError = opsError;
+            this.bytesPerOp = bytesPerOp;
+            this.allocMbPerSec = allocMbPerSec;
+        }
+
+        public double nsPerOp() {
+            return 1e9 / opsPerSec;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-44s %14.1f +- %8.1f ops/s %12.1f ns/op %12.1f B/op %9.1f MB/s",
+                    name, opsPerSec, opsError, nsPerOp(), bytesPerOp, allocMbPerSec);
+        }
+    }
+
+    /** Warm up and measure op on the current thread. */
+    public Result run(String name, Runnable op) {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(op);
+        }
+
+        double sumOps = 0, minOps = Double.MAX_VALUE, maxOps = 0;
+        double sumBytes = 0, sumOpsCount = 0, sumSeconds = 0;
+        for (int i = 0; i < measureIterations; i++) {
+            long tid = Thread.currentThread().getId();
+            long bytesBefore = THREADS.getThreadAllocatedBytes(tid);
+            long start = System.nanoTime();
+            long ops = iteration(op);
+            long elapsed = System.nanoTime() - start;
+            long bytes = THREADS.getThreadAllocatedBytes(tid) - bytesBefore;
+
+            double opsPerSec = ops * 1e9 / elapsed;
+            sumOps += opsPerSec;
+            minOps = Math.min(minOps, opsPerSec);
+            maxOps = Math.max(maxOps, opsPerSec);
+            sumBytes += bytes;
+            sumOpsCount += ops;
+            sumSeconds += elapsed / 1e9;
+        }
+
+        Result r = new Result(name, sumOps / measureIterations, (maxOps - minOps) / 2,
+                sumBytes / sumOpsCount, sumBytes / sumSeconds / (1024 * 1024));
+        System.out.println(r);
+        return r;
+    }
+
+    // Runs op in batches until the iteration time is used up; returns the number of ops
+    private long iteration(Runnable op) {
+        long deadline = System.nanoTime() + iterationNanos;
+        long ops = 0;
+        int batch = 1;
+        long now = System.nanoTime();
+        while (now < deadline) {
+            long batchStart = now;
+            for (int i = 0; i < batch; i++) {
+                op.run();
+            }
+            ops += batch;
+            now = System.nanoTime();
+            // Fewer clock reads once we know the op is cheap, without overshooting on slow ops
+            if (batch < 1024 && now - batchStart < 100_000L) batch <<= 1;
+        }
+        return ops;
+    }
+}
@@ -0,0 +1,45 @@
+package bench;
+
+/**
+ * Check: tiny pass/fail recorder for the self-checks in bench/ (there is no test framework here).
+ *
+ *   Check check = new Check("SpatialHash");
+ *   check.that("pairs match brute force", ok);
+ *   check.finish();   // prints a summary, exits 1 if anything failed
+ */
+public class Check {
+
+    private final String suite;
+    private int passed = 0;
+    private int failed = 0;
+
+    public Check(String suite) {
+        this.suite = suite;
+    }
+
+    /** Record one check; failures are printed with the detail message. */
+    public boolean that(String name, boolean ok) {
+        return that(name, ok, "");
+    }
+
+    public boolean that(String name, boolean ok, String detail) {
+        if (ok) {
+            passed++;
+            System.out.println("  ok    " + name);
+        } else {
+            failed++;
+            System.out.println("  FAIL  " + name + (detail.isEmpty() ? "" : " (" + detail + ")"));
+        }
+        return ok;
+    }
+
+    public int failures() {
+        return failed;
+    }
+
+    /** Print the summary line and exit non-zero when a check failed. */
+    public void finish() {
+        System.out.println(suite + ": " + passed + " passed, " + failed + " failed");
+        if (failed > 0) System.exit(1);
+    }
+}
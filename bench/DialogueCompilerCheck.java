@@ -0,0 +1,128 @@
+package bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import managers.AssetArchive;
+import managers.DialogueCompiler;
+import managers.DialogueGraph;
+
+/**
+ * DialogueCompilerCheck: runnable behavioural check for managers.DialogueCompiler / DialogueGraph.
+ *
+ *   java bench.DialogueCompilerCheck
+ *
+ * Compiles small scripts in a temp directory and walks the resulting graph: speakers, choices with
+ * forward and backward label references, fall-through choices, "-> END", blank-line ends and
+ * unknown labels. Also checks that a fresh compile is written back as .dlgc and reused, and that
+ * editing the script makes it stale again. Exits 1 on a mismatch.
+ */
+public class DialogueCompilerCheck {
+
+    private static final List<String> SCRIPT = Arrays.asList(
+            "@intro",
+            "Guide: Welcome.",
+            "Do you want the tour?",
+            "* Yes please -> tour",
+            "* No thanks -> bye",
+            "* Maybe",
+            "Guide: Think about it.",
+            "-> intro",
+            "@tour",
+            "Guide: Here is the hall.",
+            "-> END",
+            "@bye",
+            "Guide: Goodbye then.",
+            "",
+            "@lost",
+            "Nobody: points nowhere",
+            "-> nowhere",
+            "This sentence is long enough that its colon: is not a speaker");
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("DialogueCompiler self-check");
+        AssetArchive.setDefault(null);      // loose files only
+        Check check = new Check("DialogueCompiler");
+        File dir = Files.createTempDirectory("dlgc-check").toFile();
+        try {
+            checkGraph(check, dir);
+            checkPlainScript(check, dir);
+            checkWriteBack(check, dir);
+        } finally {
+            File[] files = dir.listFiles();
+            if (files != null) for (File f : files) f.delete();
+            dir.delete();
+        }
+        check.finish();
+    }
+
+    private static void checkGraph(Check check, File dir) throws IOException {
+        DialogueGraph g = DialogueGraph.load(write(dir, "graph.txt", SCRIPT).getPath());
+        int intro = g.labelNode("intro"), tour = g.labelNode("tour"), bye = g.labelNode("bye"), lost = g.labelNode("lost");
+
+        check.that("start is the first line", g.start() == 0 && intro == 0 && "Welcome.".equals(g.text(0)));
+        check.that("speaker parsed", "Guide".equals(g.speaker(0)));
+        check.that("same speaker, same String", g.speaker(0) == g.speaker(g.labelNode("tour")));
+
+        int question = g.next(0);
+        check.that("line without ':' is narration", g.speaker(question) == null && "Do you want the tour?".equals(g.text(question)));
+        check.that("three choices", g.choiceCount(question) == 3, g.choiceCount(question) + " choices");
+        check.that("choice text", "Yes please".equals(g.choiceText(question, 0)) && "Maybe".equals(g.choiceText(question, 2)));
+        check.that("forward label reference", tour >= 0 && g.choiceTarget(question, 0) == tour
+                && "Here is the hall.".equals(g.text(tour)));
+        check.that("second forward reference", bye >= 0 && g.choiceTarget(question, 1) == bye
+                && "Goodbye then.".equals(g.text(bye)));
+        int maybe = g.choiceTarget(question, 2);
+        check.that("choice without -> falls through", maybe == question + 1 && "Think about it.".equals(g.text(maybe)));
+        check.that("backward jump", g.next(maybe) == intro);
+
+        check.that("-> END ends", g.next(tour) == -1 && g.isEnd(g.next(tour)));
+        check.that("blank line is an end node", g.next(bye) >= 0 && g.isEnd(g.next(bye)));
+        check.that("after a blank line only reachable by label", lost == g.next(bye) + 1 && "points nowhere".equals(g.text(lost)));
+        check.that("unknown label ends", g.next(lost) == -1);
+        check.that("late colon is not a speaker", g.speaker(lost + 1) == null
+                && g.text(lost + 1).startsWith("This sentence") && g.next(lost + 1) == -1);
+        check.that("missing label is -1", g.labelNode("missing") == -1);
+    }
+
+    private static void checkPlainScript(Check check, File dir) throws IOException {
+        DialogueGraph g = DialogueGraph.load(write(dir, "plain.txt", Arrays.asList("One", "Two", "Three")).getPath());
+        int a = g.start(), b = g.next(a), c = g.next(b);
+        check.that("plain script is a sequence", "One".equals(g.text(a)) && "Two".equals(g.text(b))
+                && "Three".equals(g.text(c)) && g.next(c) == -1 && g.choiceCount(a) == 0);
+
+        DialogueGraph empty = DialogueGraph.load(write(dir, "empty.txt", Arrays.asList()).getPath());
+        check.that("empty script starts at the end", empty.start() == -1 && empty.isEnd(empty.start()));
+    }
+
+    private static void checkWriteBack(Check check, File dir) throws IOException {
+        File script = write(dir, "edit.txt", Arrays.asList("Guide: first"));
+        File compiled = new File(DialogueCompiler.compiledPath(script.getPath()));
+        DialogueGraph.load(script.getPath());
+        check.that("compile is written back as .dlgc", compiled.isFile());
+
+        // A current .dlgc is used as-is: corrupt its text and the load must still see the .dlgc
+        byte[] bytes = Files.readAllBytes(compiled.toPath());
+        byte[] marked = new String(bytes, StandardCharsets.ISO_8859_1).replace("first", "FIRST").getBytes(StandardCharsets.ISO_8859_1);
+        Files.write(compiled.toPath(), marked);
+        check.that("up-to-date .dlgc is reused", "FIRST".equals(DialogueGraph.load(script.getPath()).text(0)));
+
+        // Editing the script makes the .dlgc stale: recompiled, and rewritten
+        Files.write(script.toPath(), Arrays.asList("Guide: second line"), StandardCharsets.UTF_8);
+        script.setLastModified(script.lastModified() + 2000);
+        check.that("edited script is recompiled", "second line".equals(DialogueGraph.load(script.getPath()).text(0)));
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(compiled.toPath()));
+        check.that("recompile is written back", header.getLong(8) == script.length() && header.getLong(16) == script.lastModified()
+                && new String(header.array(), StandardCharsets.UTF_8).contains("second line"));
+    }
+
+    private static File write(File dir, String name, List<String> lines) throws IOException {
+        File f = new File(dir, name);
+        Files.write(f.toPath(), lines, StandardCharsets.UTF_8);
+        return f;
+    }
+}
@@ -0,0 +1,224 @@
+package bench;
+
+import entities.CollisionSystem;
+import entities.EntityWorld;
+import entities.SpatialHash;
+import entities.PlayerEntity;
+import fx.BoxBlurStage;
+import fx.BrightnessFX;
+import fx.BrightnessStage;
+import fx.ColorGradeStage;
+import fx.EffectPipeline;
+import fx.GrayscaleStage;
+import fx.PixelOps;
+import fx.TintStage;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import main.GamePanel;
+import main.HeadlessGame;
+import managers.Animation;
+import managers.AudioMixer;
+import managers.AnimationSystem;
+import managers.GameClock;
+import managers.InputManager;
+import managers.LogoManager;
+import managers.SceneManager;
+import managers.SoundManager;
+import managers.TransitionManager;
+import render.RenderMode;
+import scenes.HudEntity;
+
+/**
+ * HotPathBenchmarks: throughput + allocation suites for the per-frame hot paths.
+ *
+ *   java -Djava.awt.headless=true bench.HotPathBenchmarks [filter] [quick]
+ *
+ * filter only runs benchmarks whose name contains it; "quick" uses shorter iterations.
+ * Runs headless on a frozen virtual clock so overlays and animations stay put while measured.
+ * Baseline numbers are recorded in the README (Benchmarks section); compare against those.
+ */
+public class HotPathBenchmarks {
+
+    private final Benchmark bench;
+    private final String filter;
+
+    private HotPathBenchmarks(Benchmark bench, String filter) {
+        this.bench = bench;
+        this.filter = filter;
+    }
+
+    private void run(String name, Runnable op) {
+        if (filter == null || name.contains(filter)) {
+            bench.run(name, op);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+        String filter = (args.length > 0 && !args[0].equals("all")) ? args[0] : null;
+        boolean quick = args.length > 1 && args[1].equals("quick");
+
+        Benchmark bench = new Benchmark();
+        if (quick) bench.iterations(1, 3, 300);
+        new HotPathBenchmarks(bench, filter).runAll();
+    }
+
+    private void runAll() {
+        // Headless game gives us a GamePanel with a player, wired to InputManager; its clock is virtual
+        // and never advanced here, so timed overlays don't expire mid-measurement.
+        HeadlessGame game = new HeadlessGame(1920, 1080, 60);
+        GamePanel panel = game.getPanel();
+        SceneManager scenes = SceneManager.getInstance();
+
+        System.out.printf("%-44s %30s %17s %15s %12s%n", "Benchmark", "Throughput", "Latency", "Alloc/op", "Alloc rate");
+
+        // ---- GamePanel.gameRender into an offscreen buffer ----
+        panel.setRenderMode(RenderMode.BUFFERED_IMAGE);   // no display: the blit target is skipped
+        panel.setSize(1920, 1080);
+        run("GamePanel.gameRender 1080p", () -> panel.gameRender(1.0));
+        panel.setSize(3840, 2160);
+        run("GamePanel.gameRender 4K", () -> panel.gameRender(1.0));
+        panel.setSize(1920, 1080);
+
+        // ---- PlayerEntity ----
+        BufferedImage target = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = target.createGraphics();
+        PlayerEntity player = panel.player;
+        PlayerEntity other = new PlayerEntity(panel, player.x + 10, player.y + 10);
+        run("PlayerEntity.draw", () -> player.draw(g2));
+        run("PlayerEntity.collidesWith", () -> Benchmark.consume(player.collidesWith(other)));
+
+        // ---- EntityWorld batched update over 10k moving entities ----
+        EntityWorld world = new EntityWorld(10_000);
+        world.setBounds(1920, 1080);
+        for (int i = 0; i < 10_000; i++) {
+            world.create(EntityWorld.TYPE_ENEMY, (i * 37) % 1900, (i * 91) % 1060, 8, 8, (i % 7) * 20 - 60, (i % 5) * 25 - 50);
+        }
+        run("EntityWorld.update 10k", () -> world.update(1f / 60f));
+        run("EntityWorld.draw 10k", () -> world.draw(g2, 1f / 60f, 1.0));
+
+        // ---- Broadphase over the same 10k entities (entities keep moving, so cells change) ----
+        CollisionSystem collisions = new CollisionSystem(world, 32f);
+        long[] pairs = new long[1];
+        SpatialHash.PairCallback countPairs = (a, b) -> pairs[0]++;
+        run("CollisionSystem.update+pairs 10k", () -> {
+            world.update(1f / 60f);
+            collisions.update();
+            collisions.forEachCollision(countPairs);
+        });
+        Benchmark.consume(pairs[0]);
+
+        // ---- BrightnessFX per-pixel loop on a 64x64 sprite ----
+        BrightnessFX brightness = new BrightnessFX(panel);
+        brightness.setBrightness(100);
+        BufferedImage sprite = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 64; y++) {
+            for (int x = 0; x < 64; x++) {
+                sprite.setRGB(x, y, 0xff000000 | (x * 4) << 16 | (y * 4) << 8 | 0x40);
+            }
+        }
+        run("BrightnessFX.brighten 64x64", () -> Benchmark.consume(brightness.brightenImageUncached(sprite)));
+        run("BrightnessFX.brighten 64x64 (cached)", () -> Benchmark.consume(brightness.brightenImage(sprite)));
+        int[] lut = PixelOps.brightnessLut(100, new int[256]);
+        int[] src = new int[64 * 64];
+        int[] dst = new int[64 * 64];
+        sprite.getRGB(0, 0, 64, 64, src, 0, 64);
+        run("PixelOps.applyRgbLut 64x64 (uncached pass)", () -> {
+            PixelOps.applyRgbLut(src, dst, src.length, lut, lut, lut);
+            Benchmark.consume(dst[0]);
+        });
+
+        // ---- Full-frame effect pipeline at 1080p (fused colour pass, then colour + blur) ----
+        BufferedImage frame = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB);
+        EffectPipeline colour = new EffectPipeline()
+                .add(new BrightnessStage(20)).add(new TintStage(java.awt.Color.orange, 0.15f))
+                .add(new GrayscaleStage(0.3f)).add(new ColorGradeStage().setAll(0.02f, 1.1f, 0.95f));
+        run("EffectPipeline colour 1080p", () -> colour.apply(frame));
+        EffectPipeline blur = new EffectPipeline().add(new BrightnessStage(20)).add(new BoxBlurStage(3));
+        run("EffectPipeline colour+blur 1080p", () -> blur.apply(frame));
+
+        // ---- Animation.update with many frames ----
+        Animation anim = new Animation(true);
+        for (int i = 0; i < 1000; i++) {
+            anim.addFrame(sprite, 16);
+        }
+        anim.start();
+        run("Animation.update 1000 frames", () -> {
+            anim.update();
+            Benchmark.consume(anim.getImage());
+        });
+
+        // ---- AnimationSystem batch pass: 1000 running animations, one game-time step per op ----
+        GameClock clock = GameClock.getInstance();
+        AnimationSystem animations = AnimationSystem.getInstance();
+        for (int i = 0; i < 1000; i++) {
+            Animation a = new Animation(true);
+            for (int f = 0; f < 8; f++) {
+                a.addFrame(sprite, 100);
+            }
+            a.start();
+        }
+        run("AnimationSystem.update 1000 anims", () -> {
+            clock.tick(16_666_667L);
+            animations.update();
+        });
+        animations.clear();
+
+        // ---- AudioMixer: one block with every voice busy (offline, no audio device needed) ----
+        AudioMixer mixer = new AudioMixer(32);
+        AudioMixer.Sample tone = SoundManager.getInstance().loadSample("src/sounds/ping.wav");
+        byte[] block = new byte[mixer.getBlockFrames() * 4];
+        for (int i = 0; i < 32; i++) {
+            mixer.play(tone, 0.5f, (i % 5 - 2) / 2f, true);
+        }
+        run("AudioMixer.mix 32 voices", () -> mixer.mix(block, mixer.getBlockFrames()));
+        run("AudioMixer.play (steal)", () -> Benchmark.consume(mixer.play(tone, 0.5f, 0f, false)));
+
+        // ---- InputManager.processInputThisFrame with a held key ----
+        InputManager input = InputManager.getInstance();
+        game.pressKey(KeyEvent.VK_RIGHT);
+        run("InputManager.processInputThisFrame", input::processInputThisFrame);
+        game.releaseKey(KeyEvent.VK_RIGHT);
+
+        // ---- Text: Graphics2D drawString / drawChars (AA) for a HUD-sized label, then the HUD ----
+        Font hudFont = new Font(Font.DIALOG, Font.BOLD, 16);
+        g2.setFont(hudFont);
+        g2.setColor(Color.GREEN);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        run("Graphics2D.drawString 12 chars", () -> g2.drawString("Damage 12345", 10, 100));
+        char[] label = "Damage 12345".toCharArray();
+        run("Graphics2D.drawChars 12 chars", () -> g2.drawChars(label, 0, label.length, 10, 100));
+        HudEntity hud = panel.getHud();
+        hud.setHealth(25);
+        hud.setPoints(12345);
+        run("HudEntity.draw", () -> hud.draw(g2, 1920));
+
+        // ---- SceneManager.draw with each overlay active on its own ----
+        run("SceneManager.draw none", () -> scenes.draw(g2, 1920, 1080));
+
+        scenes.showDialogueFromFile("src/dialouge/test.txt");
+        run("SceneManager.draw dialogue", () -> scenes.draw(g2, 1920, 1080));
+        while (scenes.isDialogueActive()) {
+            scenes.advanceDialogue();
+        }
+
+        scenes.showTransition(Long.MAX_VALUE / 4);
+        GameClock.getInstance().advance(1_000_000_000L);   // past the fade-in, into the opaque hold
+        run("SceneManager.draw transition", () -> scenes.draw(g2, 1920, 1080));
+        TransitionManager.getInstance().hide();
+
+        if (scenes.loadLogo("src/logo/logo.png")) {
+            scenes.showLogo(Long.MAX_VALUE / 4);
+            run("SceneManager.draw logo", () -> scenes.draw(g2, 1920, 1080));
+            LogoManager.getInstance().hide();
+        }
+
+        g2.dispose();
+    }
+}
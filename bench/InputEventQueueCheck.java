@@ -0,0 +1,156 @@
+package bench;
+
+import managers.InputEventQueue;
+
+/**
+ * InputEventQueueCheck: runnable behavioural check for managers.InputEventQueue.
+ *
+ *   java bench.InputEventQueueCheck
+ *
+ * Covers capacity rounding, the full ring (drop and count instead of overwrite), field packing,
+ * FIFO order while head / tail wrap the ring many times, and a real producer thread racing the
+ * consumer: every event arrives once, in order, intact. Exits 1 on a mismatch.
+ */
+public class InputEventQueueCheck {
+
+    private static final int THREADED_EVENTS = 500_000;
+
+    // Drain target: checks each event continues the expected sequence (key and type derive from when)
+    private static final class Sequence implements InputEventQueue.Consumer {
+        long next = 0;
+        long received = 0;
+        long gaps = 0;
+        long corrupt = 0;
+        boolean allowGaps = false;
+
+        @Override
+        public void accept(int type, int keyCode, long when) {
+            if (keyCode != (int) (when & 0xFFFF) || type != typeFor(when)) corrupt++;
+            if (when != next) {
+                if (!allowGaps || when < next) gaps++;
+            }
+            next = when + 1;
+            received++;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("InputEventQueue self-check");
+        Check check = new Check("InputEventQueue");
+        checkCapacity(check);
+        checkFullRing(check);
+        checkPacking(check);
+        checkWrap(check);
+        checkThreaded(check, true);
+        checkThreaded(check, false);
+        check.finish();
+    }
+
+    private static int typeFor(long seq) {
+        return ((seq & 1) == 0) ? InputEventQueue.KEY_PRESSED : InputEventQueue.KEY_RELEASED;
+    }
+
+    private static boolean offer(InputEventQueue q, long seq) {
+        return q.offer(typeFor(seq), (int) (seq & 0xFFFF), seq);
+    }
+
+    private static void checkCapacity(Check check) {
+        int[][] cases = { { 1, 2 }, { 2, 2 }, { 3, 4 }, { 64, 64 }, { 65, 128 } };
+        boolean ok = true;
+        StringBuilder detail = new StringBuilder();
+        for (int[] c : cases) {
+            int got = new InputEventQueue(c[0]).capacity();
+            if (got != c[1]) {
+                ok = false;
+                detail.append(c[0]).append(" -> ").append(got).append(' ');
+            }
+        }
+        check.that("capacity rounds up to a power of two", ok, detail.toString().trim());
+    }
+
+    private static void checkFullRing(Check check) {
+        InputEventQueue q = new InputEventQueue(8);
+        Sequence seq = new Sequence();
+        check.that("empty drain", q.drain(seq) == 0 && q.size() == 0);
+
+        boolean accepted = true;
+        for (long i = 0; i < 8; i++) accepted &= offer(q, i);
+        check.that("fills to capacity", accepted && q.size() == 8);
+        boolean rejected = !offer(q, 8) && !offer(q, 9);
+        check.that("full ring drops new events and counts them", rejected && q.getDropped() == 2 && q.size() == 8);
+
+        int n = q.drain(seq);
+        check.that("queued events survive the drops, in order", n == 8 && seq.received == 8 && seq.gaps == 0 && seq.corrupt == 0);
+        check.that("drained ring accepts again", offer(q, 8) && q.size() == 1);
+    }
+
+    private static void checkPacking(Check check) {
+        InputEventQueue q = new InputEventQueue(4);
+        int[] got = new int[2];
+        long[] when = new long[1];
+        InputEventQueue.Consumer c = (type, key, w) -> {
+            got[0] = type;
+            got[1] = key;
+            when[0] = w;
+        };
+        q.offer(InputEventQueue.KEY_RELEASED, 0xFFFF, Long.MAX_VALUE);
+        q.drain(c);
+        boolean high = got[0] == InputEventQueue.KEY_RELEASED && got[1] == 0xFFFF && when[0] == Long.MAX_VALUE;
+        q.offer(InputEventQueue.KEY_PRESSED, 0, -1L);
+        q.drain(c);
+        boolean low = got[0] == InputEventQueue.KEY_PRESSED && got[1] == 0 && when[0] == -1L;
+        check.that("type / key / time round-trip at the field limits", high && low);
+    }
+
+    private static void checkWrap(Check check) {
+        InputEventQueue q = new InputEventQueue(8);
+        Sequence seq = new Sequence();
+        java.util.Random random = new java.util.Random(7);
+        long sent = 0;
+        for (int round = 0; round < 100_000; round++) {
+            int batch = 1 + random.nextInt(q.capacity());
+            for (int i = 0; i < batch; i++) offer(q, sent++);
+            q.drain(seq);
+        }
+        check.that("FIFO across " + (sent / q.capacity()) + " wraps of the ring",
+                seq.received == sent && seq.gaps == 0 && seq.corrupt == 0 && q.getDropped() == 0,
+                seq.received + "/" + sent + " received, " + seq.gaps + " out of order, " + seq.corrupt + " corrupt");
+    }
+
+    // retry = true: the producer spins on a full ring, so every event must arrive.
+    // retry = false: it drops like the AWT side does; what arrives must still be ordered and intact.
+    private static void checkThreaded(Check check, boolean retry) throws InterruptedException {
+        InputEventQueue q = new InputEventQueue(64);
+        Sequence seq = new Sequence();
+        seq.allowGaps = !retry;
+        long[] offered = new long[1];
+
+        Thread producer = new Thread(() -> {
+            for (long i = 0; i < THREADED_EVENTS; i++) {
+                if (retry) {
+                    while (!offer(q, i)) Thread.yield();
+                } else {
+                    offer(q, i);
+                }
+            }
+            offered[0] = THREADED_EVENTS;
+        }, "InputEventQueueCheck producer");
+        producer.start();
+        while (producer.isAlive()) {
+            if (q.drain(seq) == 0) Thread.yield();   // let the producer run, even on one core
+        }
+        producer.join();
+        q.drain(seq);
+
+        if (retry) {
+            check.that("producer thread, retry on full: all " + THREADED_EVENTS + " in order",
+                    seq.received == THREADED_EVENTS && seq.gaps == 0 && seq.corrupt == 0,
+                    seq.received + " received, " + seq.gaps + " out of order, " + seq.corrupt + " corrupt");
+        } else {
+            check.that("producer thread, dropping: received + dropped == offered, ordered, intact",
+                    seq.received + q.getDropped() == offered[0] && seq.gaps == 0 && seq.corrupt == 0,
+                    seq.received + " received + " + q.getDropped() + " dropped, " + seq.gaps + " out of order, "
+                            + seq.corrupt + " corrupt");
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package bench;
+
+import entities.SpatialHash;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * SpatialHashCheck: runnable behavioural check for entities.SpatialHash.
+ *
+ *   java bench.SpatialHashCheck [seed]
+ *
+ * Drives the hash with random boxes (many spanning several cells, some at negative coordinates),
+ * moves and removes them, and compares forEachPair / query against a brute-force scan: every
+ * overlapping pair reported exactly once, every query hit reported once. Exits 1 on a mismatch.
+ */
+public class SpatialHashCheck {
+
+    private static final float CELL = 32f;
+    private static final int IDS = 400;
+
+    private final Random random;
+    private final float[] x = new float[IDS], y = new float[IDS], w = new float[IDS], h = new float[IDS];
+    private final boolean[] live = new boolean[IDS];
+    private final int[] pairCount = new int[IDS * IDS];
+    private final int[] hitCount = new int[IDS];
+
+    private SpatialHashCheck(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) {
+        long seed = (args.length > 0) ? Long.parseLong(args[0]) : 42L;
+        System.out.println("SpatialHash self-check (seed " + seed + ")");
+        Check check = new Check("SpatialHash");
+        new SpatialHashCheck(seed).run(check);
+        check.finish();
+    }
+
+    private void run(Check check) {
+        // Start small so ids, entries and buckets all have to grow
+        SpatialHash hash = new SpatialHash(CELL, 8);
+
+        for (int id = 0; id < IDS; id++) place(hash, id);
+        checkPairs(check, hash, "pairs after insert");
+        checkQueries(check, hash, "queries after insert");
+
+        // Small moves mostly stay in the same cells (the incremental no-op path), big ones re-insert
+        for (int round = 0; round < 5; round++) {
+            for (int id = 0; id < IDS; id++) {
+                if (!live[id]) continue;
+                if (random.nextInt(4) == 0) {
+                    place(hash, id);
+                } else {
+                    x[id] += random.nextFloat() * 2f - 1f;
+                    y[id] += random.nextFloat() * 2f - 1f;
+                    hash.update(id, x[id], y[id], x[id] + w[id], y[id] + h[id]);
+                }
+            }
+        }
+        checkPairs(check, hash, "pairs after moves");
+        checkQueries(check, hash, "queries after moves");
+
+        int removed = 0;
+        boolean containsOk = true;
+        for (int id = 0; id < IDS; id += 3) {
+            hash.remove(id);
+            live[id] = false;
+            containsOk &= !hash.contains(id);
+            removed++;
+        }
+        check.that("contains() false after remove", containsOk);
+        checkPairs(check, hash, "pairs after removing " + removed);
+        checkQueries(check, hash, "queries after removing " + removed);
+
+        // Removed slots come back (entry free list reuse)
+        for (int id = 0; id < IDS; id += 3) place(hash, id);
+        checkPairs(check, hash, "pairs after re-insert");
+
+        // The query stamp is bumped per call: repeated queries must keep reporting every id once
+        boolean repeatOk = true;
+        for (int i = 0; i < 1000 && repeatOk; i++) {
+            Arrays.fill(hitCount, 0);
+            hash.query(-200f, -200f, 800f, 800f, id -> hitCount[id]++);
+            for (int id = 0; id < IDS; id++) {
+                if (hitCount[id] > 1) repeatOk = false;
+            }
+        }
+        check.that("1000 repeated queries report each id at most once", repeatOk);
+
+        // Two boxes sharing a 3x3 block of cells still make exactly one pair
+        SpatialHash small = new SpatialHash(CELL, 4);
+        float[] sx = {0f, 10f}, sy = {0f, 10f}, sw = {90f, 90f}, sh = {90f, 90f};
+        small.update(0, 0f, 0f, 90f, 90f);
+        small.update(1, 10f, 10f, 100f, 100f);
+        int[] pairs = new int[1];
+        small.forEachPair(sx, sy, sw, sh, (a, b) -> pairs[0]++);
+        check.that("boxes sharing 9 cells pair once", pairs[0] == 1, pairs[0] + " pairs");
+
+        hash.clear();
+        boolean clearOk = true;
+        for (int id = 0; id < IDS; id++) clearOk &= !hash.contains(id);
+        int[] after = new int[1];
+        hash.query(-1000f, -1000f, 1000f, 1000f, id -> after[0]++);
+        check.that("clear() empties the hash", clearOk && after[0] == 0, after[0] + " hits left");
+    }
+
+    private void place(SpatialHash hash, int id) {
+        x[id] = random.nextFloat() * 700f - 100f;
+        y[id] = random.nextFloat() * 700f - 100f;
+        // Mostly sub-cell boxes with some spanning up to ~4 cells
+        float size = (random.nextInt(5) == 0) ? 40f + random.nextFloat() * 90f : 4f + random.nextFloat() * 24f;
+        w[id] = size;
+        h[id] = size * (0.5f + random.nextFloat());
+        live[id] = true;
+        hash.update(id, x[id], y[id], x[id] + w[id], y[id] + h[id]);
+    }
+
+    private boolean overlaps(int a, int b) {
+        return x[a] < x[b] + w[b] && x[b] < x[a] + w[a] && y[a] < y[b] + h[b] && y[b] < y[a] + h[a];
+    }
+
+    private void checkPairs(Check check, SpatialHash hash, String name) {
+        Arrays.fill(pairCount, 0);
+        hash.forEachPair(x, y, w, h, (a, b) -> pairCount[Math.min(a, b) * IDS + Math.max(a, b)]++);
+
+        int expected = 0, missing = 0, repeated = 0, spurious = 0;
+        for (int a = 0; a < IDS; a++) {
+            for (int b = a + 1; b < IDS; b++) {
+                int seen = pairCount[a * IDS + b];
+                boolean want = live[a] && live[b] && overlaps(a, b);
+                if (want) expected++;
+                if (want && seen == 0) missing++;
+                if (seen > 1) repeated++;
+                if (!want && seen > 0) spurious++;
+            }
+        }
+        check.that(name + " (" + expected + " overlapping)", missing == 0 && repeated == 0 && spurious == 0,
+                missing + " missing, " + repeated + " repeated, " + spurious + " spurious");
+    }
+
+    private void checkQueries(Check check, SpatialHash hash, String name) {
+        int missing = 0, repeated = 0, outside = 0;
+        for (int q = 0; q < 200; q++) {
+            float qx = random.nextFloat() * 700f - 100f, qy = random.nextFloat() * 700f - 100f;
+            float qw = 1f + random.nextFloat() * 150f, qh = 1f + random.nextFloat() * 150f;
+            Arrays.fill(hitCount, 0);
+            hash.query(qx, qy, qx + qw, qy + qh, id -> hitCount[id]++);
+
+            for (int id = 0; id < IDS; id++) {
+                if (hitCount[id] > 1) repeated++;
+                if (hitCount[id] > 0 && (!live[id] || !cellsOverlap(id, qx, qy, qx + qw, qy + qh))) outside++;
+                boolean exact = live[id] && x[id] < qx + qw && qx < x[id] + w[id] && y[id] < qy + qh && qy < y[id] + h[id];
+                if (exact && hitCount[id] == 0) missing++;
+            }
+        }
+        check.that(name, missing == 0 && repeated == 0 && outside == 0,
+                missing + " missing, " + repeated + " repeated, " + outside + " outside the query cells");
+    }
+
+    // query() is cell-granular: a hit only has to share a grid cell with the region
+    private boolean cellsOverlap(int id, float minX, float minY, float maxX, float maxY) {
+        return cell(x[id]) <= cell(maxX) && cell(minX) <= cell(x[id] + w[id])
+                && cell(y[id]) <= cell(maxY) && cell(minY) <= cell(y[id] + h[id]);
+    }
+
+    private static int cell(float v) {
+        return (int) Math.floor(v / CELL);
+    }
+}
@@ -0,0 +1,48 @@
+package entities;
+
+/**
+ * CollisionSystem: broadphase + narrowphase collision for an EntityWorld.
+ *
+ * Call update() once per tick after the world has moved; it feeds every live slot's box into a
+ * SpatialHash (only slots that changed cells are re-inserted) and drops freed slots.
+ * forEachCollision() then reports each overlapping pair once. Cost grows with the number of
+ * entities and actual neighbours instead of N^2, and nothing is allocated per query.
+ */
+public class CollisionSystem {
+    private final EntityWorld world;
+    private final SpatialHash hash;
+
+    /** cellSize should be around the size of a typical entity (a bit larger is fine). */
+    public CollisionSystem(EntityWorld world, float cellSize) {
+        this.world = world;
+        this.hash = new SpatialHash(cellSize, 256);
+    }
+
+    /** Sync the broadphase with the world's current positions. */
+    public void update() {
+        int n = world.getHighWater();
+        int[] type = world.type;
+        float[] x = world.x, y = world.y, w = world.width, h = world.height;
+        for (int i = 0; i < n; i++) {
+            if (type[i] == EntityWorld.TYPE_FREE) {
+                hash.remove(i);
+            } else {
+                hash.update(i, x[i], y[i], x[i] + w[i], y[i] + h[i]);
+            }
+        }
+    }
+
+    /** Report every pair of live entities whose boxes overlap (each pair once). */
+    public void forEachCollision(SpatialHash.PairCallback callback) {
+        hash.forEachPair(world.x, world.y, world.width, world.height, callback);
+    }
+
+    /** Report every live entity whose cells overlap the region; do an exact test in the callback. */
+    public void query(float minX, float minY, float maxX, float maxY, SpatialHash.QueryCallback callback) {
+        hash.query(minX, minY, maxX, maxY, callback);
+    }
+
+    public void clear() {
+        hash.clear();
+    }
+}
@@ -12,4 +12,11 @@ public interface Entity {
     Rectangle2D.Double getBoundingRectangle();
     boolean collidesWith(Entity other);
 
+    // Bounds without allocating a rectangle; override these when the fields are at hand
+    // (EntityWorld.syncAttached reads them every tick).
+    default double getX() { return getBoundingRectangle().x; }
+    default double getY() { return getBoundingRectangle().y; }
+    default double getWidth() { return getBoundingRectangle().width; }
+    default double getHeight() { return getBoundingRectangle().height; }
+
 }
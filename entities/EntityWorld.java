@@ -0,0 +1,216 @@
+package entities;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.util.Arrays;
+
+/**
+ * EntityWorld: data-oriented store for large numbers of simple entities (enemies, projectiles, ...).
+ *
+ * Every entity is just an index into parallel primitive arrays (struct-of-arrays):
+ * position (x, y), velocity (vx, vy), size (width, height) and type. Slots are reused through a
+ * free list, so create() and destroy() are O(1). update(dt) moves everything in one tight loop
+ * with no virtual calls; freed slots have zero velocity so the loop needs no branches.
+ *
+ * Systems may read/write the public arrays directly, but must not cache them across create()
+ * calls: the arrays are replaced when the world grows.
+ *
+ * Hand-written Entity objects (like PlayerEntity) can join through attach(); their bounds are
+ * mirrored into the arrays by syncAttached() so batch systems see them too. WorldEntity goes the
+ * other way and exposes a slot through the Entity interface.
+ *
+ * Each slot has a generation that changes whenever the slot is freed, so a handle that remembers
+ * (id, generation) can tell its entity is gone even after the slot has been reused.
+ */
+public class EntityWorld {
+
+    public static final int TYPE_FREE = 0;        // unused slot
+    public static final int TYPE_PLAYER = 1;
+    public static final int TYPE_ENEMY = 2;
+    public static final int TYPE_PROJECTILE = 3;
+
+    private static final Color[] TYPE_COLORS = {
+        null, Color.decode("#58d3ca"), Color.decode("#e05a47"), Color.decode("#f5d061")
+    };
+
+    public float[] x;
+    public float[] y;
+    public float[] vx;
+    public float[] vy;
+    public float[] width;
+    public float[] height;
+    public int[] type;
+    private int[] generation;           // bumped on destroy()/clear(); see isAlive(id, generation)
+
+    private Entity[] attached;          // hand-written objects mirrored into a slot (null for plain slots)
+    private int[] freeList;             // stack of free slot indices below highWater
+    private int freeCount = 0;
+    private int highWater = 0;          // slots [0, highWater) have been used at least once
+    private int liveCount = 0;
+
+    private float boundsWidth = 0f;     // 0 = unbounded
+    private float boundsHeight = 0f;
+
+    public EntityWorld(int initialCapacity) {
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    private void allocate(int capacity) {
+        x = grow(x, capacity);
+        y = grow(y, capacity);
+        vx = grow(vx, capacity);
+        vy = grow(vy, capacity);
+        width = grow(width, capacity);
+        height = grow(height, capacity);
+        type = (type == null) ? new int[capacity] : Arrays.copyOf(type, capacity);
+        generation = (generation == null) ? new int[capacity] : Arrays.copyOf(generation, capacity);
+        freeList = (freeList == null) ? new int[capacity] : Arrays.copyOf(freeList, capacity);
+        attached = (attached == null) ? new Entity[capacity] : Arrays.copyOf(attached, capacity);
+    }
+
+    private static float[] grow(float[] a, int capacity) {
+        return (a == null) ? new float[capacity] : Arrays.copyOf(a, capacity);
+    }
+
+    /** Keep entities inside [0, width] x [0, height]; they bounce off the edges. 0 disables. */
+    public void setBounds(float width, float height) {
+        boundsWidth = Math.max(0f, width);
+        boundsHeight = Math.max(0f, height);
+    }
+
+    /** Create an entity and return its id (slot index). O(1), amortised when the world grows. */
+    public int create(int entityType, float px, float py, float w, float h, float velX, float velY) {
+        int id;
+        if (freeCount > 0) {
+            id = freeList[--freeCount];
+        } else {
+            if (highWater == x.length) allocate(x.length * 2);
+            id = highWater++;
+        }
+        x[id] = px;
+        y[id] = py;
+        vx[id] = velX;
+        vy[id] = velY;
+        width[id] = w;
+        height[id] = h;
+        type[id] = entityType;
+        liveCount++;
+        return id;
+    }
+
+    /** Destroy an entity. O(1); the slot is reused by a later create(). */
+    public void destroy(int id) {
+        if (!isAlive(id)) return;
+        type[id] = TYPE_FREE;
+        vx[id] = 0f;                    // keeps update() branch-free over freed slots
+        vy[id] = 0f;
+        attached[id] = null;
+        generation[id]++;
+        freeList[freeCount++] = id;
+        liveCount--;
+    }
+
+    public boolean isAlive(int id) {
+        return id >= 0 && id < highWater && type[id] != TYPE_FREE;
+    }
+
+    /** Generation of the slot; changes every time the entity in it is destroyed. */
+    public int getGeneration(int id) {
+        return generation[id];
+    }
+
+    /** True if id still holds the entity that had this generation when the handle was taken. */
+    public boolean isAlive(int id, int gen) {
+        return isAlive(id) && generation[id] == gen;
+    }
+
+    /** Number of live entities. */
+    public int size() {
+        return liveCount;
+    }
+
+    /** Upper bound (exclusive) of ids that may be alive; loop to this and skip TYPE_FREE. */
+    public int getHighWater() {
+        return highWater;
+    }
+
+    /**
+     * Mirror a hand-written Entity into the world. Its bounds are copied in on every syncAttached();
+     * update() never moves it (velocity stays 0) and draw() leaves it to draw itself.
+     */
+    public int attach(Entity entity, int entityType) {
+        int id = create(entityType, (float) entity.getX(), (float) entity.getY(),
+                (float) entity.getWidth(), (float) entity.getHeight(), 0f, 0f);
+        attached[id] = entity;
+        return id;
+    }
+
+    public Entity getAttached(int id) {
+        return attached[id];
+    }
+
+    /** Copy attached entities' current bounds into the arrays. */
+    public void syncAttached() {
+        for (int i = 0; i < highWater; i++) {
+            Entity e = attached[i];
+            if (e == null) continue;
+            x[i] = (float) e.getX();
+            y[i] = (float) e.getY();
+            width[i] = (float) e.getWidth();
+            height[i] = (float) e.getHeight();
+        }
+    }
+
+    /** Advance every entity by dt seconds, then keep them inside the bounds (if set). */
+    public void update(float dt) {
+        final int n = highWater;
+        final float[] px = x, py = y, pvx = vx, pvy = vy;
+
+        // Integration: straight-line loop over primitive arrays, which C2 can vectorise
+        for (int i = 0; i < n; i++) {
+            px[i] += pvx[i] * dt;
+            py[i] += pvy[i] * dt;
+        }
+
+        if (boundsWidth <= 0f || boundsHeight <= 0f) return;
+        final float[] pw = width, ph = height;
+        for (int i = 0; i < n; i++) {
+            float maxX = boundsWidth - pw[i];
+            float maxY = boundsHeight - ph[i];
+            if (px[i] < 0f) { px[i] = 0f; pvx[i] = Math.abs(pvx[i]); }
+            else if (px[i] > maxX) { px[i] = maxX; pvx[i] = -Math.abs(pvx[i]); }
+            if (py[i] < 0f) { py[i] = 0f; pvy[i] = Math.abs(pvy[i]); }
+            else if (py[i] > maxY) { py[i] = maxY; pvy[i] = -Math.abs(pvy[i]); }
+        }
+    }
+
+    /**
+     * Draw every world-owned entity as a filled rectangle in its type colour. Positions are
+     * extrapolated back by (1 - alpha) of a step so they line up with interpolated entities.
+     */
+    public void draw(Graphics2D g2, float stepSeconds, double alpha) {
+        float back = (float) ((1.0 - alpha) * stepSeconds);
+        int currentType = -1;
+        for (int i = 0; i < highWater; i++) {
+            int t = type[i];
+            if (t == TYPE_FREE || attached[i] != null) continue;
+            if (t != currentType) {
+                currentType = t;
+                g2.setColor(t < TYPE_COLORS.length ? TYPE_COLORS[t] : Color.gray);
+            }
+            g2.fillRect((int) (x[i] - vx[i] * back), (int) (y[i] - vy[i] * back), (int) width[i], (int) height[i]);
+        }
+    }
+
+    /** Destroy everything and reuse the arrays. */
+    public void clear() {
+        Arrays.fill(type, 0, highWater, TYPE_FREE);
+        Arrays.fill(vx, 0, highWater, 0f);
+        Arrays.fill(vy, 0, highWater, 0f);
+        Arrays.fill(attached, 0, highWater, null);
+        for (int i = 0; i < highWater; i++) generation[i]++;
+        highWater = 0;
+        freeCount = 0;
+        liveCount = 0;
+    }
+}
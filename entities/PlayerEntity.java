@@ -3,7 +3,9 @@ package entities;
 import java.awt.*;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import javax.swing.*;
+import managers.SpriteCache;
 
 public class PlayerEntity implements MoveableEntity {
     public int damage = 2;
@@ -12,12 +14,13 @@ public class PlayerEntity implements MoveableEntity {
     private final JPanel panel;
     public int x;
     public int y;
+    private int prevX;                         // position at the start of the last tick (for interpolation)
+    private int prevY;
     public static int diameter = 40;
     private final Color PlayerColor = Color.decode("#58d3ca");
     private final int speed = 5;
 
-    private Ellipse2D.Double player;
-    private Ellipse2D.Double outline;
+    private final SpriteCache.Handle sprite = new SpriteCache.Handle();   // pre-rendered circle + outline
 
     private final Color backgroundColour;
     private Dimension dimension;
@@ -29,6 +32,8 @@ public class PlayerEntity implements MoveableEntity {
         backgroundColour = panel.getBackground();
         x = xPos;
         y = yPos;
+        prevX = xPos;
+        prevY = yPos;
 
 
     }
@@ -42,14 +47,17 @@ public class PlayerEntity implements MoveableEntity {
 
     // Overload: draw onto a provided Graphics2D (e.g., an offscreen buffer)
     public void draw(Graphics2D g2) {
-        player = new Ellipse2D.Double(x, y, diameter, diameter);
-        outline = new Ellipse2D.Double(x-(0.1*diameter), y-(0.1*diameter), diameter+(0.2*diameter), diameter+(0.2*diameter));
+        draw(g2, 1.0);
+    }
 
-        g2.setColor(Color.BLACK);
-        g2.fill(outline);
+    // Draw between the previous and current tick positions; alpha 0 = previous, 1 = current
+    public void draw(Graphics2D g2, double alpha) {
+        int drawX = (int) Math.round(prevX + (x - prevX) * alpha);
+        int drawY = (int) Math.round(prevY + (y - prevY) * alpha);
 
-        g2.setColor(PlayerColor);
-        g2.fill(player);    
+        // The sprite is rendered once per size/colour; every frame after that is a single blit
+        BufferedImage img = sprite.get(SpriteCache.Shape.OUTLINED_CIRCLE, diameter, PlayerColor, Color.BLACK);
+        g2.drawImage(img, drawX - sprite.getPadding(), drawY - sprite.getPadding(), null);
     }
 
     public void erase() {
@@ -93,15 +101,40 @@ public class PlayerEntity implements MoveableEntity {
         return new Rectangle2D.Double (x, y, diameter, diameter);
     }
 
+    @Override
+    public double getX() { return x; }
+
+    @Override
+    public double getY() { return y; }
+
+    @Override
+    public double getWidth() { return diameter; }
+
+    @Override
+    public double getHeight() { return diameter; }
+
     @Override
     public void setPosition(int x, int y) {
         this.x = x;
         this.y = y;
+        prevX = x;                             // teleport: don't interpolate across the jump
+        prevY = y;
+    }
+
+    // Called at the start of every simulation tick so draw(g2, alpha) can interpolate
+    public void savePreviousPosition() {
+        prevX = x;
+        prevY = y;
     }
 
     @Override
     public boolean collidesWith(Entity other) {
-        return this.getBoundingRectangle().intersects(other.getBoundingRectangle());
+        if (other instanceof PlayerEntity) {
+            // Primitive AABB test, no rectangles allocated
+            PlayerEntity o = (PlayerEntity) other;
+            return x < o.x + diameter && o.x < x + diameter && y < o.y + diameter && o.y < y + diameter;
+        }
+        return other.getBoundingRectangle().intersects(x, y, diameter, diameter);
     }
 
 
@@ -0,0 +1,235 @@
+package entities;
+
+import java.util.Arrays;
+
+/**
+ * SpatialHash: uniform-grid broadphase for axis-aligned boxes, keyed by integer ids.
+ *
+ * Each id is inserted into every grid cell its box overlaps; cells are hashed into a bucket
+ * table (doubled when it gets crowded), so the grid is unbounded. update() is incremental: if an id still covers the
+ * same cells nothing is touched, otherwise only that id is re-inserted. All bookkeeping lives
+ * in int arrays that grow as needed, so queries and pair iteration never allocate.
+ *
+ * Pair iteration reports each overlapping pair exactly once, even when the two boxes share
+ * several cells, and runs the narrowphase on the caller's primitive AABB arrays.
+ */
+public class SpatialHash {
+
+    /** Receives candidate pairs that passed the AABB narrowphase. */
+    public interface PairCallback {
+        void onPair(int a, int b);
+    }
+
+    /** Receives ids whose box overlaps a query region. */
+    public interface QueryCallback {
+        void onHit(int id);
+    }
+
+    private final float cellSize;
+    private final float invCellSize;
+    private int bucketMask;
+    private int[] bucketHead;           // grows with the number of entries to keep chains short
+    private int liveEntries = 0;
+
+    // Entry pool: one entry per (id, cell) pair. Free entries are chained through entryNext.
+    private int[] entryId;
+    private int[] entryCx;
+    private int[] entryCy;
+    private int[] entryNext;            // next entry in the same bucket (or free list)
+    private int[] entryPrev;            // previous entry in the same bucket
+    private int[] entryBucket;
+    private int[] entryOwnerNext;       // next entry belonging to the same id
+    private int freeEntry = -1;
+    private int entryHighWater = 0;
+
+    // Per-id state: first entry and the cell range currently inserted
+    private int[] idFirstEntry;
+    private int[] idMinCx, idMinCy, idMaxCx, idMaxCy;
+    private int[] queryStamp;
+    private int stamp = 0;
+
+    public SpatialHash(float cellSize, int expectedIds) {
+        this.cellSize = cellSize;
+        this.invCellSize = 1f / cellSize;
+        int buckets = Integer.highestOneBit(Math.max(64, expectedIds * 2) - 1) << 1;
+        bucketMask = buckets - 1;
+        bucketHead = new int[buckets];
+        Arrays.fill(bucketHead, -1);
+        growEntries(Math.max(64, expectedIds * 4));
+        growIds(Math.max(16, expectedIds));
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    private void growEntries(int capacity) {
+        int old = (entryId == null) ? 0 : entryId.length;
+        entryId = copy(entryId, capacity);
+        entryCx = copy(entryCx, capacity);
+        entryCy = copy(entryCy, capacity);
+        entryNext = copy(entryNext, capacity);
+        entryPrev = copy(entryPrev, capacity);
+        entryBucket = copy(entryBucket, capacity);
+        entryOwnerNext = copy(entryOwnerNext, capacity);
+        Arrays.fill(entryId, old, capacity, -1);
+    }
+
+    private void growIds(int capacity) {
+        int old = (idFirstEntry == null) ? 0 : idFirstEntry.length;
+        idFirstEntry = copy(idFirstEntry, capacity);
+        idMinCx = copy(idMinCx, capacity);
+        idMinCy = copy(idMinCy, capacity);
+        idMaxCx = copy(idMaxCx, capacity);
+        idMaxCy = copy(idMaxCy, capacity);
+        queryStamp = copy(queryStamp, capacity);
+        Arrays.fill(idFirstEntry, old, capacity, -1);
+    }
+
+    private static int[] copy(int[] a, int capacity) {
+        return (a == null) ? new int[capacity] : Arrays.copyOf(a, capacity);
+    }
+
+    private int cell(float v) {
+        return (int) Math.floor(v * invCellSize);
+    }
+
+    private int bucket(int cx, int cy) {
+        int h = cx * 0x8da6b343 ^ cy * 0xd8163841;
+        return (h ^ (h >>> 16)) & bucketMask;
+    }
+
+    public boolean contains(int id) {
+        return id >= 0 && id < idFirstEntry.length && idFirstEntry[id] != -1;
+    }
+
+    /** Insert or move id's box. Cheap when the box still covers the same cells. */
+    public void update(int id, float minX, float minY, float maxX, float maxY) {
+        int minCx = cell(minX), minCy = cell(minY), maxCx = cell(maxX), maxCy = cell(maxY);
+        if (id >= idFirstEntry.length) {
+            growIds(Math.max(id + 1, idFirstEntry.length * 2));
+        } else if (idFirstEntry[id] != -1) {
+            if (idMinCx[id] == minCx && idMinCy[id] == minCy && idMaxCx[id] == maxCx && idMaxCy[id] == maxCy) {
+                return;
+            }
+            remove(id);
+        }
+
+        idMinCx[id] = minCx;
+        idMinCy[id] = minCy;
+        idMaxCx[id] = maxCx;
+        idMaxCy[id] = maxCy;
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                int e = newEntry();
+                int b = bucket(cx, cy);
+                entryId[e] = id;
+                entryCx[e] = cx;
+                entryCy[e] = cy;
+                entryBucket[e] = b;
+                entryPrev[e] = -1;
+                entryNext[e] = bucketHead[b];
+                if (bucketHead[b] != -1) entryPrev[bucketHead[b]] = e;
+                bucketHead[b] = e;
+                entryOwnerNext[e] = idFirstEntry[id];
+                idFirstEntry[id] = e;
+            }
+        }
+    }
+
+    private int newEntry() {
+        if (++liveEntries > bucketHead.length) rehash(bucketHead.length * 2);
+        if (freeEntry != -1) {
+            int e = freeEntry;
+            freeEntry = entryNext[e];
+            return e;
+        }
+        if (entryHighWater == entryId.length) growEntries(entryId.length * 2);
+        return entryHighWater++;
+    }
+
+    /** Remove id from every cell it occupies. */
+    public void remove(int id) {
+        if (!contains(id)) return;
+        int e = idFirstEntry[id];
+        while (e != -1) {
+            int nextOwned = entryOwnerNext[e];
+            int prev = entryPrev[e];
+            int next = entryNext[e];
+            if (prev != -1) entryNext[prev] = next;
+            else bucketHead[entryBucket[e]] = next;
+            if (next != -1) entryPrev[next] = prev;
+
+            entryId[e] = -1;
+            entryNext[e] = freeEntry;
+            freeEntry = e;
+            liveEntries--;
+            e = nextOwned;
+        }
+        idFirstEntry[id] = -1;
+    }
+
+    // Resize the bucket table and relink every live entry into its new bucket
+    private void rehash(int buckets) {
+        bucketHead = new int[buckets];
+        bucketMask = buckets - 1;
+        Arrays.fill(bucketHead, -1);
+        for (int e = 0; e < entryHighWater; e++) {
+            if (entryId[e] == -1) continue;
+            int b = bucket(entryCx[e], entryCy[e]);
+            entryBucket[e] = b;
+            entryPrev[e] = -1;
+            entryNext[e] = bucketHead[b];
+            if (bucketHead[b] != -1) entryPrev[bucketHead[b]] = e;
+            bucketHead[b] = e;
+        }
+    }
+
+    /** Remove everything (keeps the allocated arrays). */
+    public void clear() {
+        Arrays.fill(bucketHead, -1);
+        Arrays.fill(entryId, 0, entryHighWater, -1);
+        Arrays.fill(idFirstEntry, -1);
+        entryHighWater = 0;
+        freeEntry = -1;
+        liveEntries = 0;
+    }
+
+    /**
+     * Report every pair of ids whose boxes overlap, exactly once. Boxes are read from the given
+     * arrays (x, y, width, height indexed by id), which is the narrowphase test.
+     */
+    public void forEachPair(float[] x, float[] y, float[] w, float[] h, PairCallback callback) {
+        for (int e = 0; e < entryHighWater; e++) {
+            int a = entryId[e];
+            if (a == -1) continue;
+            int cx = entryCx[e], cy = entryCy[e];
+            for (int o = entryNext[e]; o != -1; o = entryNext[o]) {
+                int b = entryId[o];
+                if (b == a || entryCx[o] != cx || entryCy[o] != cy) continue;   // other cell in the same bucket
+                // Only report in the first cell both boxes share, so pairs spanning cells aren't repeated
+                if (Math.max(idMinCx[a], idMinCx[b]) != cx || Math.max(idMinCy[a], idMinCy[b]) != cy) continue;
+                if (x[a] < x[b] + w[b] && x[b] < x[a] + w[a] && y[a] < y[b] + h[b] && y[b] < y[a] + h[a]) {
+                    callback.onPair(a, b);
+                }
+            }
+        }
+    }
+
+    /** Report every id whose cells overlap the region (each id once). Callers do their own exact test. */
+    public void query(float minX, float minY, float maxX, float maxY, QueryCallback callback) {
+        int minCx = cell(minX), minCy = cell(minY), maxCx = cell(maxX), maxCy = cell(maxY);
+        stamp++;
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                for (int e = bucketHead[bucket(cx, cy)]; e != -1; e = entryNext[e]) {
+                    if (entryCx[e] != cx || entryCy[e] != cy) continue;
+                    int id = entryId[e];
+                    if (queryStamp[id] == stamp) continue;
+                    queryStamp[id] = stamp;
+                    callback.onHit(id);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package entities;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * WorldEntity: adapter that exposes one EntityWorld slot through the MoveableEntity interface,
+ * for code that still works with Entity objects. The data stays in the world's arrays; this
+ * object only holds the world, the slot id and the slot's generation when it was taken.
+ *
+ * Once the entity is destroyed the handle goes stale (isValid() is false) even if the slot is
+ * reused: setters and move() do nothing, bounds are empty and it collides with nothing.
+ */
+public class WorldEntity implements MoveableEntity {
+    private final EntityWorld world;
+    private final int id;
+    private final int generation;
+    private float speed = 300f;          // pixels per second used by move(directionCode)
+
+    public WorldEntity(EntityWorld world, int id) {
+        this.world = world;
+        this.id = id;
+        this.generation = world.getGeneration(id);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /** False once the entity this handle was made for has been destroyed. */
+    public boolean isValid() {
+        return world.isAlive(id, generation);
+    }
+
+    public void setSpeed(float speed) {
+        this.speed = speed;
+    }
+
+    @Override
+    public void setPosition(int x, int y) {
+        if (!isValid()) return;
+        world.x[id] = x;
+        world.y[id] = y;
+    }
+
+    @Override
+    public void draw() { }               // the world draws all of its entities in one pass
+
+    @Override
+    public void erase() {
+        if (isValid()) world.destroy(id);
+    }
+
+    @Override
+    public Rectangle2D.Double getBoundingRectangle() {
+        if (!isValid()) return new Rectangle2D.Double();
+        return new Rectangle2D.Double(world.x[id], world.y[id], world.width[id], world.height[id]);
+    }
+
+    @Override
+    public double getX() { return isValid() ? world.x[id] : 0.0; }
+
+    @Override
+    public double getY() { return isValid() ? world.y[id] : 0.0; }
+
+    @Override
+    public double getWidth() { return isValid() ? world.width[id] : 0.0; }
+
+    @Override
+    public double getHeight() { return isValid() ? world.height[id] : 0.0; }
+
+    @Override
+    public boolean collidesWith(Entity other) {
+        if (!isValid()) return false;
+        if (other instanceof WorldEntity) {
+            WorldEntity o = (WorldEntity) other;
+            if (o.world == world) {
+                if (!o.isValid()) return false;
+                // Both sides live in the same arrays: compare the AABBs directly
+                return world.x[id] < world.x[o.id] + world.width[o.id]
+                    && world.x[o.id] < world.x[id] + world.width[id]
+                    && world.y[id] < world.y[o.id] + world.height[o.id]
+                    && world.y[o.id] < world.y[id] + world.height[id];
+            }
+        }
+        return getBoundingRectangle().intersects(other.getBoundingRectangle());
+    }
+
+    /** Same direction codes as PlayerEntity (1..8); anything else stops the entity. */
+    @Override
+    public void move(int directionCode) {
+        if (!isValid()) return;
+        float dx = 0f, dy = 0f;
+        switch (directionCode) {
+            case 1 -> dx = -1f;                     // Left
+            case 2 -> dx = 1f;                      // Right
+            case 3 -> dy = -1f;                     // Up
+            case 4 -> dy = 1f;                      // Down
+            case 5 -> { dx = 1f; dy = -1f; }        // Up-right
+            case 6 -> { dx = -1f; dy = -1f; }       // Up-left
+            case 7 -> { dx = 1f; dy = 1f; }         // Down-right
+            case 8 -> { dx = -1f; dy = 1f; }        // Down-left
+            default -> { }
+        }
+        world.vx[id] = dx * speed;
+        world.vy[id] = dy * speed;
+    }
+}
@@ -0,0 +1,107 @@
+package fx;
+
+/**
+ * Separable box blur of the given radius: a horizontal pass, then a vertical pass. Both use
+ * running sums, so cost per pixel doesn't depend on the radius. Edges are clamped.
+ * The vertical pass keeps per-band column sums, which are reused between frames.
+ */
+public class BoxBlurStage extends KernelStage {
+    private volatile int radius;
+    private int[][] columnSums = new int[0][];   // per band: width * 4 channel sums
+    private int[] divide = new int[0];           // divide[sum] = sum / (2r+1), avoids 8 divisions per pixel
+    private int divideRadius = -1;
+
+    public BoxBlurStage(int radius) {
+        setRadius(radius);
+    }
+
+    public void setRadius(int radius) {
+        this.radius = Math.max(0, radius);
+    }
+
+    @Override
+    public int passes() {
+        return 2;
+    }
+
+    @Override
+    public void prepare(int width, int height, int bands) {
+        int r = radius;
+        if (r != divideRadius) {
+            int div = r * 2 + 1;
+            divide = new int[256 * div];
+            for (int i = 0; i < divide.length; i++) divide[i] = i / div;
+            divideRadius = r;
+        }
+        if (columnSums.length < bands) {
+            int[][] grown = new int[bands][];
+            System.arraycopy(columnSums, 0, grown, 0, columnSums.length);
+            columnSums = grown;
+        }
+        for (int b = 0; b < bands; b++) {
+            if (columnSums[b] == null || columnSums[b].length < width * 4) columnSums[b] = new int[width * 4];
+        }
+    }
+
+    @Override
+    public void runPass(int pass, int[] src, int[] dst, int width, int height, int stride, int y0, int y1, int band) {
+        int r = divideRadius;   // the radius prepare() built the table for
+        if (pass == 0) horizontal(src, dst, width, stride, y0, y1, r, divide);
+        else vertical(src, dst, width, height, stride, y0, y1, r, columnSums[band], divide);
+    }
+
+    private static void horizontal(int[] src, int[] dst, int width, int stride, int y0, int y1, int r, int[] d) {
+        int last = width - 1;
+        for (int y = y0; y < y1; y++) {
+            int row = y * stride;
+            int sa = 0, sr = 0, sg = 0, sb = 0;
+            for (int i = -r; i <= r; i++) {
+                int p = src[row + Math.min(last, Math.max(0, i))];
+                sa += p >>> 24; sr += (p >> 16) & 0xff; sg += (p >> 8) & 0xff; sb += p & 0xff;
+            }
+            for (int x = 0; x < width; x++) {
+                dst[row + x] = (d[sa] << 24) | (d[sr] << 16) | (d[sg] << 8) | d[sb];
+                int out = src[row + Math.max(0, x - r)];
+                int in = src[row + Math.min(last, x + r + 1)];
+                sa += (in >>> 24) - (out >>> 24);
+                sr += ((in >> 16) & 0xff) - ((out >> 16) & 0xff);
+                sg += ((in >> 8) & 0xff) - ((out >> 8) & 0xff);
+                sb += (in & 0xff) - (out & 0xff);
+            }
+        }
+    }
+
+    private static void vertical(int[] src, int[] dst, int width, int height, int stride, int y0, int y1, int r,
+                                 int[] sums, int[] d) {
+        int last = height - 1;
+        java.util.Arrays.fill(sums, 0, width * 4, 0);
+        for (int i = y0 - r; i <= y0 + r; i++) {
+            addRow(src, sums, Math.min(last, Math.max(0, i)) * stride, width);
+        }
+        for (int y = y0; y < y1; y++) {
+            int row = y * stride;
+            int outRow = Math.max(0, y - r) * stride;
+            int inRow = Math.min(last, y + r + 1) * stride;
+            // Write this row from the column sums, then slide the window down by one row
+            for (int x = 0, s = 0; x < width; x++, s += 4) {
+                dst[row + x] = (d[sums[s]] << 24) | (d[sums[s + 1]] << 16) | (d[sums[s + 2]] << 8) | d[sums[s + 3]];
+                int out = src[outRow + x];
+                int in = src[inRow + x];
+                sums[s] += (in >>> 24) - (out >>> 24);
+                sums[s + 1] += ((in >> 16) & 0xff) - ((out >> 16) & 0xff);
+                sums[s + 2] += ((in >> 8) & 0xff) - ((out >> 8) & 0xff);
+                sums[s + 3] += (in & 0xff) - (out & 0xff);
+            }
+        }
+    }
+
+    private static void addRow(int[] src, int[] sums, int rowStart, int width) {
+        for (int x = 0, s = 0; x < width; x++, s += 4) {
+            int p = src[rowStart + x];
+            sums[s] += p >>> 24;
+            sums[s + 1] += (p >> 16) & 0xff;
+            sums[s + 2] += (p >> 8) & 0xff;
+            sums[s + 3] += p & 0xff;
+        }
+    }
+}
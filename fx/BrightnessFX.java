@@ -19,7 +19,11 @@ public class BrightnessFX implements ImageFX {
     private int y;
 
     private BufferedImage spriteImage;           // image for sprite effect
-    private BufferedImage copy;                  // copy of image
+    private BufferedImage copy;                  // brightened sprite (shared, from the variant cache)
+
+    // Brightened sprites memoized per (sprite, brightness); a flash cycles through cached frames
+    private static final FXVariantCache variants = new FXVariantCache(-255, 255, 16);
+    private final int[] lut = new int[256];     // clamp(channel + brightness) for channel 0..255
 
     Graphics2D g2;
 
@@ -38,67 +42,48 @@ public class BrightnessFX implements ImageFX {
         brightnessChange = 50;                  // increase of brightness in each update
     }
 
-    private int truncate(int colourValue) {      // keeps colourValue within [0..255] range
-        if (colourValue > 255)
-            return 255;
-
-        if (colourValue < 0)
-            return 0;
-
-        return colourValue;
-    }
-
-    private int brighten(int pixel) {
-
-        int alpha, red, green, blue;
-        int newPixel;
-
-        alpha = (pixel >> 24) & 255;
-        red = (pixel >> 16) & 255;
-        green = (pixel >> 8) & 255;
-        blue = pixel & 255;
-
-        // Increase or decrease the value of the RGB components based on the value of brightness
-
-        red = red + brightness;
-        green = green + brightness;
-        blue = blue + brightness;
-
-        // Check the boundaries for 8-bit RGB components [0..255]
-
-        red = truncate(red);
-        green = truncate(green);
-        blue = truncate(blue);
+    // Recolours the sprite's pixels at a brightness level; kept in a field so draw() doesn't allocate
+    private final FXVariantCache.Renderer brightnessRenderer = this::renderBrightness;
 
-        newPixel = blue | (green << 8) | (red << 16) | (alpha << 24);
-
-        return newPixel;
+    private void renderBrightness(int[] src, int[] dst, int count, int level) {
+        PixelOps.brightnessLut(level, lut);
+        PixelOps.applyRgbLut(src, dst, count, lut, lut, lut);
     }
 
     public void draw(Graphics2D g2, boolean facing, int playerX) {
         // Load the appropriate sprite based on the player's direction
         if (facing) {
-            spriteImage = ImageManager.loadBufferedImage("images/player/static.png");
+            spriteImage = ImageManager.getCachedImage("images/player/static.png");
         } else {
-            spriteImage = ImageManager.loadBufferedImage("images/playerleft/static.png");
+            spriteImage = ImageManager.getCachedImage("images/playerleft/static.png");
         }
 
-        copy = ImageManager.copyImage(spriteImage);      // make copy of image for brightness effect
-
-        int imWidth = copy.getWidth();
-        int imHeight = copy.getHeight();
+        copy = brightenImage(spriteImage);              // brightened copy of the sprite
+        if (copy == null) return;
 
-        int[] pixels = new int[imWidth * imHeight];
-        copy.getRGB(0, 0, imWidth, imHeight, pixels, 0, imWidth);
+        g2.drawImage(copy, playerX, y, WIDTH, HEIGHT, null);
+	
+    }
 
-        for (int i = 0; i < pixels.length; i++) {
-            pixels[i] = brighten(pixels[i]);
-        }
+    // Returns src with the current brightness applied. The result is cached and shared; don't modify it.
+    public BufferedImage brightenImage(BufferedImage src) {
+        if (src == null) return null;
+        return variants.get(src, brightness, brightnessRenderer);
+    }
 
-        copy.setRGB(0, 0, imWidth, imHeight, pixels, 0, imWidth);
+    // Renders a fresh brightened copy on every call, bypassing the variant cache (one-off edits, benchmarks)
+    public BufferedImage brightenImageUncached(BufferedImage src) {
+        if (src == null) return null;
+        int w = src.getWidth(), h = src.getHeight();
+        int[] pixels = src.getRGB(0, 0, w, h, null, 0, w);
+        renderBrightness(pixels, pixels, pixels.length, brightness);
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        out.getRaster().setDataElements(0, 0, w, h, pixels);
+        return out;
+    }
 
-        g2.drawImage(copy, playerX, y, WIDTH, HEIGHT, null);
-	
+    public void setBrightness(int brightness) {   // -255 (black) .. 255 (white)
+        this.brightness = Math.max(-255, Math.min(255, brightness));
     }
 
     public Rectangle2D.Double getBoundingRectangle() {
@@ -120,5 +105,3 @@ public class BrightnessFX implements ImageFX {
 	}
 
 }
-
-    
\ No newline at end of file
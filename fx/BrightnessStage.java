@@ -0,0 +1,23 @@
+package fx;
+
+/** Adds level (-255..255) to red, green and blue. */
+public class BrightnessStage extends LutStage {
+    private volatile int level;
+
+    public BrightnessStage(int level) {
+        setLevel(level);
+    }
+
+    public void setLevel(int level) {
+        this.level = Math.max(-255, Math.min(255, level));
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public int map(int channel, int value) {
+        return value + level;
+    }
+}
@@ -0,0 +1,34 @@
+package fx;
+
+/**
+ * Lift / gamma / gain colour grading per channel, the usual three-way grade:
+ * out = gain * in^(1/gamma) + lift, with in/out in 0..1.
+ * Defaults (lift 0, gamma 1, gain 1) leave the image unchanged.
+ */
+public class ColorGradeStage extends LutStage {
+    private final float[] lift = { 0f, 0f, 0f };
+    private final float[] gamma = { 1f, 1f, 1f };
+    private final float[] gain = { 1f, 1f, 1f };
+
+    public ColorGradeStage() { }
+
+    /** Set the grade for one channel (0 = red, 1 = green, 2 = blue). */
+    public synchronized ColorGradeStage setChannel(int channel, float lift, float gamma, float gain) {
+        this.lift[channel] = lift;
+        this.gamma[channel] = Math.max(0.01f, gamma);
+        this.gain[channel] = gain;
+        return this;
+    }
+
+    /** Same grade on all three channels. */
+    public ColorGradeStage setAll(float lift, float gamma, float gain) {
+        for (int c = 0; c < 3; c++) setChannel(c, lift, gamma, gain);
+        return this;
+    }
+
+    @Override
+    public synchronized int map(int channel, int value) {
+        double v = Math.pow(value / 255.0, 1.0 / gamma[channel]) * gain[channel] + lift[channel];
+        return (int) Math.round(v * 255.0);
+    }
+}
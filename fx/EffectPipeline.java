@@ -0,0 +1,368 @@
+package fx;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import managers.ImageManager;
+
+/**
+ * EffectPipeline: a chain of effects applied to an image or to GamePanel's whole frame.
+ *
+ *   EffectPipeline fx = new EffectPipeline()
+ *       .add(new BrightnessStage(20))
+ *       .add(new TintStage(Color.orange, 0.15f))
+ *       .add(new GrayscaleStage(0.5f))
+ *       .add(new BoxBlurStage(2));
+ *   fx.apply(image);                 // in place; other image types go through an ARGB copy
+ *
+ * How it runs:
+ * - Consecutive pixel stages are fused into one pass (each row goes through all of them while
+ *   it is in cache); consecutive LutStages inside it are composed into a single set of tables.
+ * - Every pass is split into bands of rows processed in parallel on a ForkJoinPool
+ *   (small images run inline on the caller's thread).
+ * - Kernel stages ping-pong between the image and a scratch buffer that is reused between frames,
+ *   as are the band tasks, so steady-state frames don't allocate.
+ *
+ * It is also an ImageFX: setSource(sprite) and draw(...) draws the sprite through the pipeline.
+ */
+public class EffectPipeline implements ImageFX {
+
+    private static final int MIN_ROWS_PER_BAND = 32;
+
+    private final ForkJoinPool pool;
+    private final List<Object> stages = new ArrayList<>();     // PixelStage or KernelStage, in order
+    private Object[] segments = new Object[0];                 // compiled: ColorSegment or KernelStage
+    private boolean dirty = true;
+
+    private int[] scratch = new int[0];
+    private final BandTask[] tasks;                            // one per band, sized for the most bands a pass can use
+    private final RootTask root = new RootTask();
+
+    // The pass currently being run by the band tasks
+    private ColorSegment jobSegment;
+    private KernelStage jobKernel;
+    private int jobPass;
+    private int[] jobSrc, jobDst;
+    private int jobWidth, jobHeight, jobStride, jobBands;
+
+    // ImageFX state
+    private BufferedImage source;      // private TYPE_INT_ARGB copy of the sprite
+    private BufferedImage output;
+    private int y;
+
+    public EffectPipeline() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public EffectPipeline(ForkJoinPool pool) {
+        this.pool = pool;
+        tasks = new BandTask[maxBands()];
+        for (int b = 0; b < tasks.length; b++) tasks[b] = new BandTask(b);
+    }
+
+    private int maxBands() {
+        return Math.max(1, pool.getParallelism() * 2);
+    }
+
+    public synchronized EffectPipeline add(PixelStage stage) {
+        stages.add(stage);
+        dirty = true;
+        return this;
+    }
+
+    public synchronized EffectPipeline add(KernelStage stage) {
+        stages.add(stage);
+        dirty = true;
+        return this;
+    }
+
+    public synchronized boolean remove(Object stage) {
+        dirty = true;
+        return stages.remove(stage);
+    }
+
+    public synchronized void clear() {
+        stages.clear();
+        dirty = true;
+    }
+
+    public synchronized boolean isEmpty() {
+        return stages.isEmpty();
+    }
+
+    /**
+     * Apply all stages in place. TYPE_INT_RGB / TYPE_INT_ARGB images are processed directly; any
+     * other type is converted to an ARGB copy, processed, and drawn back.
+     */
+    public void apply(BufferedImage image) {
+        if (isIntPacked(image)) {
+            int stride = ((SinglePixelPackedSampleModel) image.getSampleModel()).getScanlineStride();
+            apply(PixelOps.pixels(image), image.getWidth(), image.getHeight(), stride);
+            return;
+        }
+        BufferedImage work = PixelOps.toIntArgb(image);   // always a copy here: image isn't INT_ARGB
+        apply(PixelOps.pixels(work), work.getWidth(), work.getHeight(), work.getWidth());
+        Graphics2D g2 = image.createGraphics();
+        try {
+            g2.setComposite(AlphaComposite.Src);
+            g2.drawImage(work, 0, 0, null);
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    // Pixels laid out the way the stages expect: one ARGB / RGB int per pixel, starting at index 0
+    private static boolean isIntPacked(BufferedImage image) {
+        int type = image.getType();
+        return (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB)
+                && image.getRaster().getDataBuffer() instanceof DataBufferInt
+                && image.getRaster().getSampleModelTranslateX() == 0
+                && image.getRaster().getSampleModelTranslateY() == 0;
+    }
+
+    /** Apply all stages in place to the top-left width x height of an ARGB array with the given row stride. */
+    public synchronized void apply(int[] pixels, int width, int height, int stride) {
+        if (stages.isEmpty() || width <= 0 || height <= 0) return;
+        if (dirty) compile();
+
+        int bands = Math.max(1, Math.min(tasks.length, height / MIN_ROWS_PER_BAND));
+        layoutBands(bands, height);
+
+        int[] cur = pixels;
+        int[] other = null;
+        for (Object seg : segments) {
+            if (seg instanceof ColorSegment) {
+                ColorSegment color = (ColorSegment) seg;
+                color.refreshLuts();
+                runPass(color, null, 0, cur, cur, width, height, stride, bands);
+            } else {
+                KernelStage kernel = (KernelStage) seg;
+                if (other == null) other = scratchFor(stride * height);
+                kernel.prepare(width, height, bands);
+                for (int pass = 0; pass < kernel.passes(); pass++) {
+                    runPass(null, kernel, pass, cur, other, width, height, stride, bands);
+                    int[] t = cur; cur = other; other = t;
+                }
+            }
+        }
+        if (cur != pixels) {
+            for (int row = 0; row < height; row++) {
+                System.arraycopy(cur, row * stride, pixels, row * stride, width);
+            }
+        }
+    }
+
+    private int[] scratchFor(int size) {
+        if (scratch.length < size) scratch = new int[size];
+        return scratch;
+    }
+
+    // Group stages: runs of pixel stages become one ColorSegment; kernel stages stand alone
+    private void compile() {
+        List<Object> out = new ArrayList<>();
+        List<PixelStage> run = new ArrayList<>();
+        for (Object s : stages) {
+            if (s instanceof PixelStage) {
+                run.add((PixelStage) s);
+            } else {
+                if (!run.isEmpty()) out.add(new ColorSegment(run));
+                run.clear();
+                out.add(s);
+            }
+        }
+        if (!run.isEmpty()) out.add(new ColorSegment(run));
+        segments = out.toArray();
+        dirty = false;
+    }
+
+    private void layoutBands(int bands, int height) {
+        for (int b = 0; b < bands; b++) {
+            tasks[b].y0 = (int) ((long) height * b / bands);
+            tasks[b].y1 = (int) ((long) height * (b + 1) / bands);
+        }
+    }
+
+    private void runPass(ColorSegment seg, KernelStage kernel, int pass, int[] src, int[] dst,
+                         int width, int height, int stride, int bands) {
+        jobSegment = seg;
+        jobKernel = kernel;
+        jobPass = pass;
+        jobSrc = src;
+        jobDst = dst;
+        jobWidth = width;
+        jobHeight = height;
+        jobStride = stride;
+        jobBands = bands;
+        if (bands == 1) {
+            runBand(tasks[0]);
+        } else {
+            root.reinitialize();
+            pool.invoke(root);
+        }
+    }
+
+    private void runBand(BandTask t) {
+        if (jobSegment != null) {
+            jobSegment.run(jobSrc, jobWidth, jobStride, t.y0, t.y1);
+        } else {
+            jobKernel.runPass(jobPass, jobSrc, jobDst, jobWidth, jobHeight, jobStride, t.y0, t.y1, t.band);
+        }
+    }
+
+    private final class BandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int band;
+        int y0, y1;
+
+        BandTask(int band) {
+            this.band = band;
+        }
+
+        @Override
+        protected void compute() {
+            runBand(this);
+        }
+    }
+
+    // Forks every band but the first, runs the first itself, then waits for the rest
+    private final class RootTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            for (int b = 1; b < jobBands; b++) {
+                tasks[b].reinitialize();
+                tasks[b].fork();
+            }
+            runBand(tasks[0]);
+            for (int b = 1; b < jobBands; b++) {
+                tasks[b].join();
+            }
+        }
+    }
+
+    /** A fused run of pixel stages; runs of LutStages collapse into one table lookup. */
+    private static final class ColorSegment {
+        final LutStage[][] lutGroups;   // for op i: the LutStages composed into it (null for generic ops)
+        final PixelStage[] generic;     // for op i: the generic stage (null for LUT ops)
+        final int[][] red, green, blue;
+
+        ColorSegment(List<PixelStage> run) {
+            List<LutStage[]> groups = new ArrayList<>();
+            List<PixelStage> gen = new ArrayList<>();
+            List<LutStage> pending = new ArrayList<>();
+            for (PixelStage s : run) {
+                if (s instanceof LutStage) {
+                    pending.add((LutStage) s);
+                } else {
+                    if (!pending.isEmpty()) {
+                        groups.add(pending.toArray(new LutStage[0]));
+                        gen.add(null);
+                        pending.clear();
+                    }
+                    groups.add(null);
+                    gen.add(s);
+                }
+            }
+            if (!pending.isEmpty()) {
+                groups.add(pending.toArray(new LutStage[0]));
+                gen.add(null);
+            }
+            int ops = groups.size();
+            lutGroups = groups.toArray(new LutStage[0][]);
+            generic = gen.toArray(new PixelStage[0]);
+            red = new int[ops][];
+            green = new int[ops][];
+            blue = new int[ops][];
+            for (int i = 0; i < ops; i++) {
+                if (lutGroups[i] != null) {
+                    red[i] = new int[256];
+                    green[i] = new int[256];
+                    blue[i] = new int[256];
+                }
+            }
+        }
+
+        // Stage parameters may change between frames, so recompose the tables (768 entries each)
+        void refreshLuts() {
+            for (int i = 0; i < lutGroups.length; i++) {
+                if (lutGroups[i] == null) continue;
+                for (int v = 0; v < 256; v++) {
+                    red[i][v] = v;
+                    green[i][v] = v;
+                    blue[i][v] = v;
+                }
+                for (LutStage s : lutGroups[i]) {
+                    s.composeInto(red[i], green[i], blue[i]);
+                }
+            }
+        }
+
+        // Row by row, every op runs over the row while it is still in L1 cache: one trip through memory
+        void run(int[] px, int width, int stride, int y0, int y1) {
+            for (int y = y0; y < y1; y++) {
+                int start = y * stride;
+                int end = start + width;
+                for (int o = 0; o < generic.length; o++) {
+                    if (generic[o] != null) {
+                        generic[o].applyRow(px, start, end);
+                    } else {
+                        lutRow(px, start, end, red[o], green[o], blue[o]);
+                    }
+                }
+            }
+        }
+
+        private static void lutRow(int[] px, int from, int to, int[] r, int[] g, int[] b) {
+            for (int i = from; i < to; i++) {
+                int p = px[i];
+                px[i] = (p & 0xff000000) | (r[(p >> 16) & 0xff] << 16) | (g[(p >> 8) & 0xff] << 8) | b[p & 0xff];
+            }
+        }
+    }
+
+    // ---------------- ImageFX ----------------
+
+    /** Sprite drawn by draw(); copied once into a private ARGB image. */
+    public synchronized void setSource(BufferedImage sprite) {
+        if (sprite == null) {
+            source = null;
+            output = null;
+            return;
+        }
+        source = ImageManager.copyImage(sprite);   // TYPE_INT_ARGB, ours to read directly
+        output = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+    }
+
+    public void setY(int y) {
+        this.y = y;
+    }
+
+    /** Stages hold their own parameters; override to animate them per tick. */
+    @Override
+    public void update() { }
+
+    /** Draw the source sprite through the pipeline at (x, y); mirrored when not facing right. */
+    @Override
+    public void draw(Graphics2D g2, boolean facing, int x) {
+        BufferedImage out;
+        synchronized (this) {
+            if (source == null) return;
+            int[] src = PixelOps.pixels(source);
+            int[] dst = PixelOps.pixels(output);
+            System.arraycopy(src, 0, dst, 0, src.length);
+            apply(dst, output.getWidth(), output.getHeight(), output.getWidth());
+            out = output;
+        }
+        int w = out.getWidth();
+        if (facing) g2.drawImage(out, x, y, null);
+        else g2.drawImage(out, x + w, y, -w, out.getHeight(), null);
+    }
+}
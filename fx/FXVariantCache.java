@@ -0,0 +1,91 @@
+package fx;
+
+import java.awt.image.BufferedImage;
+import java.util.WeakHashMap;
+
+/**
+ * FXVariantCache: memoizes the output of a pixel effect per (sprite, integer level).
+ *
+ * A flashing or fading effect usually cycles through a handful of levels, so after the first
+ * cycle every frame is a cache hit and drawing the effect costs a blit. Each sprite keeps at most
+ * maxVariants outputs; beyond that the oldest is dropped from the cache and the new level gets a
+ * new image. An image already handed out is never written again, so a caller still holding an
+ * evicted variant keeps drawing the level it asked for.
+ *
+ * Sprites are held weakly: when an image is dropped (e.g. evicted from ImageCache) its
+ * variants go with it. An entry never refers back to its sprite; it keeps its own copy of the
+ * sprite's pixels (read once with getRGB, which leaves the sprite's raster and acceleration alone).
+ * Output images are shared and must be treated as read-only.
+ */
+public class FXVariantCache {
+
+    /** Renders the effect at a level: read src pixels, write dst pixels (both TYPE_INT_ARGB, same size). */
+    public interface Renderer {
+        void render(int[] src, int[] dst, int count, int level);
+    }
+
+    private final int minLevel;
+    private final int maxLevel;
+    private final int maxVariants;
+    private final WeakHashMap<BufferedImage, Entry> entries = new WeakHashMap<>();
+    private int[] scratch = new int[0];  // render target reused between misses
+
+    private static final class Entry {
+        int[] src;                     // private copy of the sprite's ARGB pixels
+        int width, height;
+        BufferedImage[] byLevel;       // output per level (index = level - minLevel)
+        int[] ringLevels;              // levels in creation order, for eviction
+        int ringHead = 0;
+        int ringCount = 0;
+    }
+
+    public FXVariantCache(int minLevel, int maxLevel, int maxVariants) {
+        this.minLevel = minLevel;
+        this.maxLevel = maxLevel;
+        this.maxVariants = Math.max(1, maxVariants);
+    }
+
+    /** The sprite with the effect applied at level (clamped to the cache's range). */
+    public synchronized BufferedImage get(BufferedImage sprite, int level, Renderer renderer) {
+        level = Math.max(minLevel, Math.min(maxLevel, level));
+        Entry e = entries.get(sprite);
+        if (e == null) {
+            e = new Entry();
+            e.width = sprite.getWidth();
+            e.height = sprite.getHeight();
+            e.src = sprite.getRGB(0, 0, e.width, e.height, null, 0, e.width);
+            e.byLevel = new BufferedImage[maxLevel - minLevel + 1];
+            e.ringLevels = new int[maxVariants];
+            entries.put(sprite, e);
+        }
+
+        int slot = level - minLevel;
+        BufferedImage out = e.byLevel[slot];
+        if (out != null) return out;
+
+        // Miss: at the limit, drop the oldest variant (its image may still be in use elsewhere, so
+        // it is left untouched), then render the new level into a new image
+        if (e.ringCount < maxVariants) {
+            e.ringLevels[(e.ringHead + e.ringCount) % maxVariants] = level;
+            e.ringCount++;
+        } else {
+            e.byLevel[e.ringLevels[e.ringHead] - minLevel] = null;
+            e.ringLevels[e.ringHead] = level;
+            e.ringHead = (e.ringHead + 1) % maxVariants;
+        }
+        out = new BufferedImage(e.width, e.height, BufferedImage.TYPE_INT_ARGB);
+
+        // Render into the scratch array, then copy into the output through its raster. Writing the
+        // output's DataBufferInt directly would stop Java2D from caching it in video memory.
+        int count = e.src.length;
+        if (scratch.length < count) scratch = new int[count];
+        renderer.render(e.src, scratch, count, level);
+        out.getRaster().setDataElements(0, 0, e.width, e.height, scratch);
+        e.byLevel[slot] = out;
+        return out;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
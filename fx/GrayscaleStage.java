@@ -0,0 +1,43 @@
+package fx;
+
+/** Desaturates towards luma (Rec. 601 weights); amount 0 = unchanged, 1 = fully gray. */
+public class GrayscaleStage implements PixelStage {
+    private volatile int amount256;   // amount in 1/256ths, so the per-pixel math stays in ints
+
+    public GrayscaleStage(float amount) {
+        setAmount(amount);
+    }
+
+    public void setAmount(float amount) {
+        amount256 = Math.round(Math.max(0f, Math.min(1f, amount)) * 256f);
+    }
+
+    @Override
+    public int apply(int argb) {
+        int r = (argb >> 16) & 0xff;
+        int g = (argb >> 8) & 0xff;
+        int b = argb & 0xff;
+        int y = (r * 77 + g * 150 + b * 29) >> 8;
+        int a = amount256;
+        r += ((y - r) * a) >> 8;
+        g += ((y - g) * a) >> 8;
+        b += ((y - b) * a) >> 8;
+        return (argb & 0xff000000) | (r << 16) | (g << 8) | b;
+    }
+
+    @Override
+    public void applyRow(int[] px, int from, int to) {
+        int a = amount256;
+        for (int i = from; i < to; i++) {
+            int p = px[i];
+            int r = (p >> 16) & 0xff;
+            int g = (p >> 8) & 0xff;
+            int b = p & 0xff;
+            int y = (r * 77 + g * 150 + b * 29) >> 8;
+            r += ((y - r) * a) >> 8;
+            g += ((y - g) * a) >> 8;
+            b += ((y - b) * a) >> 8;
+            px[i] = (p & 0xff000000) | (r << 16) | (g << 8) | b;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package fx;
+
+/**
+ * KernelStage: an effect that reads neighbouring pixels (blur, sharpen, ...). It runs as one or
+ * more full passes; each pass reads the whole source and writes a band of rows of the destination,
+ * so EffectPipeline can run the bands of a pass in parallel.
+ */
+public abstract class KernelStage {
+
+    /** Number of passes this stage needs (a separable blur needs two). */
+    public abstract int passes();
+
+    /** Called before the passes run; allocate (or reuse) per-band scratch here. */
+    public void prepare(int width, int height, int bands) { }
+
+    /**
+     * Run one pass for rows [y0, y1). src and dst are ARGB arrays with the given row stride and
+     * must not be the same array. band identifies which per-band scratch to use.
+     */
+    public abstract void runPass(int pass, int[] src, int[] dst, int width, int height, int stride,
+                                 int y0, int y1, int band);
+}
@@ -0,0 +1,33 @@
+package fx;
+
+/**
+ * LutStage: a pixel stage that maps red, green and blue independently (brightness, tint, curves).
+ * EffectPipeline turns consecutive LutStages into one composed set of 256-entry tables, so any
+ * number of them costs the same as one table lookup per channel. Alpha is left alone.
+ */
+public abstract class LutStage implements PixelStage {
+
+    /** Map a channel value 0..255; channel is 0 = red, 1 = green, 2 = blue. Result is clamped. */
+    public abstract int map(int channel, int value);
+
+    @Override
+    public int apply(int argb) {
+        int r = clamp(map(0, (argb >> 16) & 0xff));
+        int g = clamp(map(1, (argb >> 8) & 0xff));
+        int b = clamp(map(2, argb & 0xff));
+        return (argb & 0xff000000) | (r << 16) | (g << 8) | b;
+    }
+
+    /** Compose this stage after the tables: lut[i] = map(lut[i]) for each channel. */
+    void composeInto(int[] red, int[] green, int[] blue) {
+        for (int i = 0; i < 256; i++) {
+            red[i] = clamp(map(0, red[i]));
+            green[i] = clamp(map(1, green[i]));
+            blue[i] = clamp(map(2, blue[i]));
+        }
+    }
+
+    static int clamp(int v) {
+        return (v < 0) ? 0 : (v > 255 ? 255 : v);
+    }
+}
@@ -0,0 +1,54 @@
+package fx;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * PixelOps: shared low-level helpers for ImageFX effects.
+ * Effects work on TYPE_INT_ARGB images through their backing int[] (DataBufferInt) instead of
+ * getRGB/setRGB, and on 256-entry lookup tables instead of per-channel branches.
+ */
+public final class PixelOps {
+
+    private PixelOps() { }
+
+    /** Returns src if it already is TYPE_INT_ARGB, otherwise a TYPE_INT_ARGB copy. */
+    public static BufferedImage toIntArgb(BufferedImage src) {
+        if (src.getType() == BufferedImage.TYPE_INT_ARGB) return src;
+        BufferedImage copy = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = copy.createGraphics();
+        g2.drawImage(src, 0, 0, null);
+        g2.dispose();
+        return copy;
+    }
+
+    /**
+     * The live pixel array behind an int-packed image (TYPE_INT_ARGB / TYPE_INT_RGB / ..._PRE).
+     * Writing to it changes the image directly. Java2D stops accelerating an image once its array
+     * has been taken, so use this on private working images, not on sprites you blit every frame.
+     */
+    public static int[] pixels(BufferedImage intImage) {
+        return ((DataBufferInt) intImage.getRaster().getDataBuffer()).getData();
+    }
+
+    /** Fill lut with clamp(i + level) for i in 0..255. level is -255..255. */
+    public static int[] brightnessLut(int level, int[] lut) {
+        for (int i = 0; i < 256; i++) {
+            int v = i + level;
+            lut[i] = (v < 0) ? 0 : (v > 255 ? 255 : v);
+        }
+        return lut;
+    }
+
+    /** dst[i] = src[i] with red/green/blue mapped through the given tables; alpha is kept. */
+    public static void applyRgbLut(int[] src, int[] dst, int count, int[] redLut, int[] greenLut, int[] blueLut) {
+        for (int i = 0; i < count; i++) {
+            int p = src[i];
+            dst[i] = (p & 0xff000000)
+                   | (redLut[(p >> 16) & 0xff] << 16)
+                   | (greenLut[(p >> 8) & 0xff] << 8)
+                   | blueLut[p & 0xff];
+        }
+    }
+}
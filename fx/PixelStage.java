@@ -0,0 +1,17 @@
+package fx;
+
+/**
+ * PixelStage: an effect that maps each pixel on its own (no neighbours), e.g. grayscale.
+ * Consecutive pixel stages in an EffectPipeline are fused into a single pass over the image.
+ */
+public interface PixelStage {
+    /** Map one ARGB pixel to its new value. */
+    int apply(int argb);
+
+    /** Map px[from..to) in place. Override with a tight loop of your own for speed. */
+    default void applyRow(int[] px, int from, int to) {
+        for (int i = from; i < to; i++) {
+            px[i] = apply(px[i]);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package fx;
+
+import java.awt.Color;
+
+/** Blends every pixel towards a colour; amount 0 = unchanged, 1 = solid colour. */
+public class TintStage extends LutStage {
+    private volatile int red, green, blue;
+    private volatile float amount;
+
+    public TintStage(Color color, float amount) {
+        setColor(color);
+        setAmount(amount);
+    }
+
+    public void setColor(Color c) {
+        red = c.getRed();
+        green = c.getGreen();
+        blue = c.getBlue();
+    }
+
+    public void setAmount(float amount) {
+        this.amount = Math.max(0f, Math.min(1f, amount));
+    }
+
+    @Override
+    public int map(int channel, int value) {
+        int target = (channel == 0) ? red : (channel == 1 ? green : blue);
+        return Math.round(value + (target - value) * amount);
+    }
+}
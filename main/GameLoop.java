@@ -0,0 +1,187 @@
+package main;
+
+/**
+ * GameLoop: fixed-timestep loop running on its own thread.
+ * - Simulation advances in fixed steps (default 60 updates per second).
+ * - Rendering runs at its own rate (maxFps) or uncapped (maxFps = 0), and receives an
+ *   interpolation alpha in [0..1] describing how far we are between the last two updates.
+ * - If the machine falls behind, up to maxCatchUpSteps updates are run before the next render;
+ *   anything beyond that is dropped so the loop cannot spiral.
+ *
+ * The loop knows nothing about Swing; it only calls back into a Listener. An exception thrown by
+ * update() or render() is logged and the loop carries on, like the Swing Timer it replaces.
+ */
+public class GameLoop implements Runnable {
+
+    /**
+     * Callbacks driven by the loop. update(stepNanos) runs at the fixed rate and is told the step
+     * it represents (so game time follows setUpdateRate), render(alpha) runs once per frame.
+     */
+    public interface Listener {
+        void update(long stepNanos);
+        void render(double alpha);
+    }
+
+    // Time left before a deadline that we spin/yield instead of sleeping (sleep overshoots by ~1ms)
+    private static final long SPIN_THRESHOLD_NS = 1_500_000L;
+    // Full stack traces for the first few failures; after that one line every REPORT_EVERY
+    private static final int FULL_REPORTS = 5;
+    private static final int REPORT_EVERY = 600;
+
+    private final Listener listener;
+    private Thread thread;
+    private volatile boolean running = false;
+
+    private volatile long stepNanos = 1_000_000_000L / 60;
+    private volatile long frameNanos = 1_000_000_000L / 60;   // 0 means uncapped
+    private volatile int maxCatchUpSteps = 5;
+
+    // Simple stats, refreshed roughly once per second
+    private volatile int fps = 0;
+    private volatile int ups = 0;
+    private int failures = 0;
+
+    public GameLoop(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Set the fixed simulation rate in updates per second. */
+    public void setUpdateRate(int updatesPerSecond) {
+        stepNanos = 1_000_000_000L / Math.max(1, updatesPerSecond);
+    }
+
+    /** Set the render cap in frames per second. 0 (or less) renders as fast as possible. */
+    public void setMaxFps(int maxFps) {
+        frameNanos = (maxFps <= 0) ? 0L : 1_000_000_000L / maxFps;
+    }
+
+    /** Maximum number of updates run back-to-back when catching up after a slow frame. */
+    public void setMaxCatchUpSteps(int steps) {
+        maxCatchUpSteps = Math.max(1, steps);
+    }
+
+    public int getFps() {
+        return fps;
+    }
+
+    public int getUps() {
+        return ups;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Start the loop thread. Does nothing if already running. */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "GameLoop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Ask the loop to stop and wait briefly for the thread to finish. */
+    public synchronized void stop() {
+        running = false;
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+    }
+
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        long accumulator = 0L;
+        long nextFrame = previous;
+
+        long statsStart = previous;
+        int frames = 0;
+        int updates = 0;
+
+        while (running) {
+            long now = System.nanoTime();
+            long step = stepNanos;
+            accumulator += now - previous;
+            previous = now;
+
+            // Run as many fixed steps as we owe, up to the catch-up limit
+            int steps = 0;
+            while (accumulator >= step && steps < maxCatchUpSteps) {
+                try {
+                    listener.update(step);
+                } catch (RuntimeException e) {
+                    report("update", e);
+                }
+                accumulator -= step;
+                steps++;
+            }
+            updates += steps;
+            if (accumulator >= step) {
+                // Too far behind: drop the remaining time instead of spiralling
+                accumulator %= step;
+            }
+
+            try {
+                listener.render((double) accumulator / step);
+            } catch (RuntimeException e) {
+                report("render", e);
+            }
+            frames++;
+
+            now = System.nanoTime();
+            if (now - statsStart >= 1_000_000_000L) {
+                fps = frames;
+                ups = updates;
+                frames = 0;
+                updates = 0;
+                statsStart = now;
+            }
+
+            // Wait until the next frame (capped) or the next update (uncapped renders every pass)
+            long frame = frameNanos;
+            if (frame > 0) {
+                nextFrame += frame;
+                if (nextFrame < now - frame) nextFrame = now;   // fell behind; don't try to catch up renders
+                waitUntil(nextFrame);
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private void report(String phase, RuntimeException e) {
+        failures++;
+        if (failures <= FULL_REPORTS) {
+            System.out.println("GameLoop: " + phase + " failed: " + e);
+            e.printStackTrace();
+        } else if (failures % REPORT_EVERY == 0) {
+            System.out.println("GameLoop: " + phase + " failed (" + failures + " failures so far): " + e);
+        }
+    }
+
+    /** Sleep for the bulk of the wait, then yield/spin the last stretch for accuracy. */
+    private void waitUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0 && running) {
+            if (remaining > SPIN_THRESHOLD_NS) {
+                try {
+                    Thread.sleep((remaining - SPIN_THRESHOLD_NS) / 1_000_000L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } else if (remaining > 200_000L) {
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+}
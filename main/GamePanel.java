@@ -1,48 +1,99 @@
 package main;
 
+import entities.CollisionSystem;
+import entities.EntityWorld;
+import entities.SpatialHash;
+import fx.EffectPipeline;
+import fx.PixelOps;
 import entities.PlayerEntity;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import javax.swing.JPanel;
 import javax.swing.Timer;
+import managers.AssetArchive;
+import managers.AnimationSystem;
+import managers.AssetLoader;
+import managers.FrameProfiler;
+import managers.GameClock;
 import managers.InputManager;
 import managers.SceneManager;
 import managers.SoundManager;
+import render.BufferStrategyBackend;
+import render.BufferedImageBackend;
+import render.RenderBackend;
+import render.RenderMode;
+import render.VolatileImageBackend;
+import scenes.HudEntity;
+import scenes.ProfilerOverlayEntity;
 
 /**
  * GamePanel: minimal, self-contained game surface for the template.
- * - Owns a PlayerEntity and renders it to an offscreen buffer.
- * - Provides a simple game loop thread with start/stop flags.
+ * - Owns a PlayerEntity and renders it through a RenderBackend (see RenderMode).
+ * - Provides a game loop with start/stop flags: either a fixed-step loop thread (default)
+ *   or the original Swing Timer (see LoopMode).
  * - Exposes simple actions: updateGameEntities(direction), swung(), shield().
+ * - Scenes, dialogue and sounds are only touched on the loop's thread; other threads (Swing buttons)
+ *   hand their actions over with runOnGameThread(...), which runs them at the start of the next tick.
  *
  * Keep it simple so you can copy this into new projects and customize.
  */
 public class GamePanel extends JPanel {
 
+    /** How the loop is driven: a dedicated fixed-step thread, or the original Swing Timer on the EDT. */
+    public enum LoopMode { FIXED_STEP_THREAD, SWING_TIMER }
+
     public PlayerEntity player;
+    public EntityWorld world;                                // bulk entities (enemies, projectiles, ...)
+    public CollisionSystem collisions;                       // spatial-hash broadphase over the world
+    private final SpatialHash.PairCallback collisionHandler = this::onCollision;
+    private static final int TIMER_DELAY_MS = 16;             // SWING_TIMER mode: one update per timer event
+    private static final String ASSET_MANIFEST = "src/assets.manifest";   // assets preloaded behind the splash
     private final int screenwidth = GameWindow.screenWidth;
     private final int screenheight = GameWindow.screenHeight;
     private Timer gameTimer;
+    private GameLoop gameLoop;
+    private LoopMode loopMode = LoopMode.FIXED_STEP_THREAD;
     public boolean isStarted;
     public boolean isRunning;
     public boolean isPaused = false;
+    private float stepSeconds = 1f / 60f;                    // length of the current update, from the loop
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();   // drained by tick()
 
     // Managers
     public SceneManager sceneManager;
     public SoundManager soundManager;
+    private final FrameProfiler profiler = FrameProfiler.getInstance();
+    private final GameClock clock = GameClock.getInstance();
+    private final AnimationSystem animations = AnimationSystem.getInstance();
+    private final ProfilerOverlayEntity profilerOverlay = new ProfilerOverlayEntity();
+    private final HudEntity hud = new HudEntity();
+
+    // How frames reach the screen. Switched on the render thread so the loop never sees a half-built backend.
+    private RenderBackend renderBackend;
+    private RenderMode renderMode = RenderMode.VOLATILE_IMAGE;
+    private volatile RenderMode pendingRenderMode = null;
 
-    private BufferedImage backBuffer; // offscreen buffer to draw into (created to match panel size)
+    // Optional full-screen post-processing: the frame is drawn into postBuffer, filtered, then presented
+    private volatile EffectPipeline postProcessing = null;
+    private BufferedImage postBuffer;
 
     public GamePanel() {
         setBackground(Color.white);
         player = null;
+        world = new EntityWorld(256);
+        collisions = new CollisionSystem(world, 64f);
         isStarted = false;
         isRunning = false;
+        // Shipped builds read assets.pak (see AssetPacker); without it everything loads from loose files
+        AssetArchive.openDefault(AssetArchive.DEFAULT_PATH);
+        // Start decoding images/sounds/dialogue in the background; managers wait only for what they need
+        AssetLoader.getInstance().loadManifest(ASSET_MANIFEST);
         soundManager = SoundManager.getInstance();
         sceneManager = SceneManager.getInstance();
-        // Back buffer will be created on first render to match the actual panel size
-        backBuffer = null;
+        // Render backend will be created on first render, once the panel is displayable
+        renderBackend = null;
        
     }
 
@@ -52,10 +103,17 @@ public class GamePanel extends JPanel {
         player = new PlayerEntity(this, screenwidth/2 - PlayerEntity.diameter/2, screenheight/2 - PlayerEntity.diameter/2);
         GameWindow.updatePointChecker(0);
         GameWindow.updatePlayerHealht(player.health);
+        hud.setPoints(0);
         System.out.println("Player created at (x=" + player.x + " y=," + player.y + ")");
 
         InputManager.getInstance().setGamePanel(this);
 
+        // Bulk entities live in the world; the player is mirrored in so world systems can see it
+        world.clear();
+        collisions.clear();
+        world.setBounds(screenwidth, screenheight);
+        world.attach(player, EntityWorld.TYPE_PLAYER);
+
         // Initialize other game entities here
     }
 
@@ -74,6 +132,61 @@ public class GamePanel extends JPanel {
     
         if (isPaused || sceneManager.isAnyActive())
             return;
+
+        world.update(stepSeconds);
+        world.syncAttached();
+        collisions.update();
+        collisions.forEachCollision(collisionHandler);
+    }
+
+    /** Called once per overlapping pair of world entities each tick (ids index into world's arrays). */
+    protected void onCollision(int a, int b) {
+        // React to collisions here (damage, pickups, ...). world.type[a] / world.type[b] tell you what touched.
+    }
+
+    /**
+     * One fixed simulation step of stepNanos (the loop's configured step): remember positions for
+     * interpolation, then update and read input.
+     */
+    public void tick(long stepNanos) {
+        runCommands();
+        stepSeconds = stepNanos / 1e9f;
+        if (player != null) {
+            player.savePreviousPosition();
+        }
+        profiler.begin(FrameProfiler.UPDATE);
+        // One game-time step per update (held while an overlay blocks gameplay), then every animation at once
+        clock.tick(sceneManager.isAnyActive() ? 0L : stepNanos);
+        animations.update();
+        updateGameEntities();
+        profiler.end(FrameProfiler.UPDATE);
+
+        profiler.begin(FrameProfiler.INPUT);
+        InputManager.getInstance().processInputThisFrame();
+        profiler.end(FrameProfiler.INPUT);
+    }
+
+    /**
+     * Run command on the thread that updates and renders the game, at the start of the next tick.
+     * Runs it straight away when the game isn't running (nothing else is reading game state then).
+     */
+    public void runOnGameThread(Runnable command) {
+        if (!isRunning) {
+            command.run();
+            return;
+        }
+        commands.add(command);
+    }
+
+    private void runCommands() {
+        for (Runnable command; (command = commands.poll()) != null; ) {
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                System.out.println("GamePanel: command failed: " + e);
+                e.printStackTrace();
+            }
+        }
     }
 
     public void receiveInput(int actionCode) {
@@ -88,46 +201,148 @@ public class GamePanel extends JPanel {
     // ============================ LOOP ============================ //
     /** Draw current state to the panel from the back buffer. */
     public void gameRender() {
-        // Ensure backBuffer matches panel size (panel may not be initialized in constructor)
+        gameRender(1.0);
+    }
+
+    /**
+     * Draw current state, interpolating moving entities between their previous and current
+     * positions. alpha is in [0..1]; 1.0 draws the latest simulated state.
+     */
+    public void gameRender(double alpha) {
         int panelW = Math.max(1, getWidth());
         int panelH = Math.max(1, getHeight());
-        if (backBuffer == null || backBuffer.getWidth() != panelW || backBuffer.getHeight() != panelH) {
-            backBuffer = new BufferedImage(panelW, panelH, BufferedImage.TYPE_INT_RGB);
+
+        RenderMode pending = pendingRenderMode;
+        if (pending != null) {
+            pendingRenderMode = null;
+            if (renderBackend != null) renderBackend.dispose();
+            renderBackend = null;
+            renderMode = pending;
         }
+        if (renderBackend == null) {
+            renderBackend = createRenderBackend(renderMode);
+        }
+
+        // Redraw if the backend lost its surface while presenting (bounded so we never stall)
+        int attempts = 0;
+        boolean presented;
+        do {
+            Graphics2D g2 = renderBackend.beginFrame(panelW, panelH);
+            if (g2 == null) break;
+            EffectPipeline post = postProcessing;
+            if (post != null && !post.isEmpty()) {
+                drawPostProcessed(g2, post, panelW, panelH, alpha);
+            } else {
+                drawFrame(g2, panelW, panelH, alpha);
+            }
+            profilerOverlay.draw(g2);
 
-        Graphics2D g2 = backBuffer.createGraphics();
+            profiler.begin(FrameProfiler.BLIT);
+            presented = renderBackend.endFrame();
+            profiler.end(FrameProfiler.BLIT);
+        } while (!presented && ++attempts < 3);
+        profiler.endFrame();
+    }
+
+    /** Draw one complete frame (background, entities, overlays) onto g2. */
+    public void drawFrame(Graphics2D g2, int width, int height, double alpha) {
         // Clear background
         g2.setColor(getBackground());
-        g2.fillRect(0, 0, backBuffer.getWidth(), backBuffer.getHeight());
+        g2.fillRect(0, 0, width, height);
 
         // Ask SceneManager to draw any active overlays. If a logo is active it will
         // occupy the full screen; otherwise we draw game content first and let the
         // SceneManager draw overlays (dialogue/transition) on top.
         if (sceneManager.isLogoActive()) {
-            sceneManager.draw(g2, backBuffer.getWidth(), backBuffer.getHeight());
+            profiler.begin(FrameProfiler.SCENE_DRAW);
+            sceneManager.draw(g2, width, height);
+            profiler.end(FrameProfiler.SCENE_DRAW);
         } else {
             // Draw player and other game content
+            profiler.begin(FrameProfiler.ENTITY_DRAW);
+            world.draw(g2, stepSeconds, alpha);
             if (player != null) {
-                player.draw(g2);
+                player.draw(g2, alpha);
+                hud.setHealth(player.health);
+                hud.draw(g2, width);
             }
+            profiler.end(FrameProfiler.ENTITY_DRAW);
+
             // Draw overlays (dialogue, transition) on top of game content
-            sceneManager.draw(g2, backBuffer.getWidth(), backBuffer.getHeight());
+            profiler.begin(FrameProfiler.SCENE_DRAW);
+            sceneManager.draw(g2, width, height);
+            profiler.end(FrameProfiler.SCENE_DRAW);
         }
+    }
+
+    /** In-game health / points display. */
+    public HudEntity getHud() {
+        return hud;
+    }
+
+    /** Show/hide the frame profiler overlay (F3). */
+    public void toggleProfilerOverlay() {
+        profilerOverlay.toggle();
+    }
 
-        // Blit buffer to screen (1:1 since buffer matches panel size)
-        Graphics2D screen = (Graphics2D) getGraphics();
-        if (screen != null) {
-            screen.drawImage(backBuffer, 0, 0, null);
-            screen.dispose();
+    // Draw into our own int buffer, run the pipeline over it, then copy it to the backend's surface
+    private void drawPostProcessed(Graphics2D g2, EffectPipeline post, int width, int height, double alpha) {
+        if (postBuffer == null || postBuffer.getWidth() < width || postBuffer.getHeight() < height) {
+            postBuffer = new BufferedImage(Math.max(width, postBuffer == null ? 0 : postBuffer.getWidth()),
+                    Math.max(height, postBuffer == null ? 0 : postBuffer.getHeight()), BufferedImage.TYPE_INT_RGB);
         }
-        g2.dispose();
+        Graphics2D pg = postBuffer.createGraphics();
+        pg.setClip(0, 0, width, height);
+        drawFrame(pg, width, height, alpha);
+        pg.dispose();
+
+        profiler.begin(FrameProfiler.POST_FX);
+        post.apply(PixelOps.pixels(postBuffer), width, height, postBuffer.getWidth());
+        g2.drawImage(postBuffer, 0, 0, width, height, 0, 0, width, height, null);
+        profiler.end(FrameProfiler.POST_FX);
+    }
+
+    /** Run a full-screen effect chain over every frame (null or an empty pipeline turns it off). */
+    public void setPostProcessing(EffectPipeline pipeline) {
+        postProcessing = pipeline;
+    }
+
+    public EffectPipeline getPostProcessing() {
+        return postProcessing;
+    }
+
+    private RenderBackend createRenderBackend(RenderMode mode) {
+        switch (mode) {
+            case BUFFER_STRATEGY:
+                return new BufferStrategyBackend(this);
+            case VOLATILE_IMAGE:
+                return new VolatileImageBackend(this);
+            default:
+                return new BufferedImageBackend(this);
+        }
+    }
+
+    /**
+     * Select how frames are presented. BUFFERED_IMAGE is the original software path and the
+     * safest fallback; the switch happens at the start of the next rendered frame.
+     */
+    public void setRenderMode(RenderMode mode) {
+        pendingRenderMode = (mode == null) ? RenderMode.BUFFERED_IMAGE : mode;
+    }
+
+    public RenderMode getRenderMode() {
+        RenderMode pending = pendingRenderMode;
+        return (pending != null) ? pending : renderMode;
     }
 
-    
     public void advanceDialogue() {
         sceneManager.advanceDialogue();
     }
 
+    public void chooseDialogueOption(int choice) {
+        sceneManager.chooseDialogueOption(choice);
+    }
+
     // -------- Convenience wrappers for SceneManager (used by GameWindow UI) --------
     public boolean loadLogo(String path) {
         return sceneManager.loadLogo(path);
@@ -155,37 +370,84 @@ public class GamePanel extends JPanel {
 
 
 
+    /** Choose how the loop is driven. Only takes effect if called before startGame(). */
+    public void setLoopMode(LoopMode mode) {
+        if (isStarted) {
+            System.out.println("Loop mode can only be changed before the game starts.");
+            return;
+        }
+        loopMode = (mode == null) ? LoopMode.FIXED_STEP_THREAD : mode;
+    }
+
+    public LoopMode getLoopMode() {
+        return loopMode;
+    }
+
+    /** The fixed-step loop (null until started in FIXED_STEP_THREAD mode). Use it to tweak rates. */
+    public GameLoop getGameLoop() {
+        return gameLoop;
+    }
+
     /** Start the game loop once. */
     public void startGame() {
         if (isStarted || isRunning) {
             System.out.println("Game already started. Reopen application to start again.");
             return;
         }
-    isStarted = true;
-    isRunning = true;
-        // ~60 FPS timer driving update + render
-        gameTimer = new Timer(16, e -> {
-            // reference event so lambda parameter is used (keeps it simple)
-            if (e.getSource() == null) return;
-            if (!isRunning) return;
-            updateGameEntities();
-            InputManager.getInstance().processInputThisFrame();
-            gameRender();
-        });
-        gameTimer.start();
+        isStarted = true;
+        isRunning = true;
         createGameEntities();
+
+        if (loopMode == LoopMode.SWING_TIMER) {
+            // ~60 FPS timer driving update + render
+            gameTimer = new Timer(TIMER_DELAY_MS, e -> {
+                // reference event so lambda parameter is used (keeps it simple)
+                if (e.getSource() == null) return;
+                if (!isRunning) return;
+                tick(TIMER_DELAY_MS * 1_000_000L);
+                gameRender();
+            });
+            gameTimer.start();
+        } else {
+            // Fixed 60 updates/s on a dedicated thread; render capped at 60 FPS (setMaxFps(0) = uncapped)
+            gameLoop = new GameLoop(new GameLoop.Listener() {
+                @Override
+                public void update(long stepNanos) {
+                    if (isRunning) tick(stepNanos);
+                }
+
+                @Override
+                public void render(double alpha) {
+                    if (isRunning) gameRender(alpha);
+                }
+            });
+            gameLoop.start();
+        }
         System.out.println("Number of threads: " + Thread.activeCount());
     }
 
+    /** Stop whichever loop is running. */
+    public void stopGame() {
+        isRunning = false;
+        if (gameTimer != null) {
+            gameTimer.stop();
+        }
+        if (gameLoop != null) {
+            gameLoop.stop();
+        }
+    }
+
     public void pauseGame() {  //Toggle pause state
         if (isRunning){
             isPaused = !isPaused;
+            clock.setPaused(isPaused);     // freezes animations too
         }
     }
 
     public void pauseGameplay(boolean pause){  //Pause gameplay without toggling for events like dialogue or logos 
         if (isRunning){
             isPaused = pause;
+            clock.setPaused(pause);
         }
     }
 
@@ -19,8 +19,9 @@ public class GameWindow extends JFrame implements ActionListener, KeyListener, M
     private final JLabel healthL;
     private static JTextField pointsTF;
     private static JTextField healthTF;
-    public static int screenWidth = Toolkit.getDefaultToolkit().getScreenSize().width;
-    public static int screenHeight = Toolkit.getDefaultToolkit().getScreenSize().height;
+    // Screen size; falls back to 1920x1080 when there is no display (headless runs)
+    public static int screenWidth = GraphicsEnvironment.isHeadless() ? 1920 : Toolkit.getDefaultToolkit().getScreenSize().width;
+    public static int screenHeight = GraphicsEnvironment.isHeadless() ? 1080 : Toolkit.getDefaultToolkit().getScreenSize().height;
 
     // Buttons
     private final JButton startB;
@@ -170,11 +171,13 @@ public class GameWindow extends JFrame implements ActionListener, KeyListener, M
     // implement methods in MouseListener interface
     
     public static void updatePointChecker(int x){
+        if (pointsTF == null) return;   // no window (headless)
         pointsTF.setText(Integer.toString(x));
     }
     
     // helper to update health text; callable from GamePanel/PlayerEntity
     public static void updatePlayerHealht (int x){
+        if (healthTF == null) return;   // no window (headless)
         if (x > 0) {
             healthTF.setText(Integer.toString(x));
         } else {
@@ -0,0 +1,121 @@
+package main;
+
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import managers.FrameProfiler;
+import managers.GameClock;
+import managers.InputEventQueue;
+import managers.InputManager;
+import render.BufferedImageBackend;
+
+/**
+ * HeadlessGame: runs the GamePanel game logic without a window, on a virtual clock.
+ * - Each step() advances GameClock by one fixed step and runs GamePanel.tick(), so logo,
+ *   transition and animation timers see simulated time, not wall-clock time.
+ * - Steps run back-to-back, as fast as the CPU allows (soak tests, AI training, benchmarks).
+ * - Rendering is skipped unless asked for; render() draws the current state into an offscreen image.
+ *
+ * Run with -Djava.awt.headless=true on machines without a display (main() sets it for you).
+ */
+public class HeadlessGame {
+    private final GamePanel panel;
+    private final GameClock clock = GameClock.getInstance();
+    private final FrameProfiler profiler = FrameProfiler.getInstance();
+    private final long stepNanos;
+    private final int width;
+    private final int height;
+
+    private BufferedImageBackend offscreen;   // created on first render()
+    private boolean renderEveryStep = false;
+    private long ticks = 0L;
+
+    public HeadlessGame(int width, int height, int updatesPerSecond) {
+        this.width = width;
+        this.height = height;
+        this.stepNanos = 1_000_000_000L / Math.max(1, updatesPerSecond);
+        clock.setVirtual(true);
+
+        panel = new GamePanel();
+        panel.setSize(width, height);   // no layout manager here, so size the panel ourselves
+        panel.isStarted = true;
+        panel.isRunning = true;
+        panel.createGameEntities();
+    }
+
+    /** Advance the simulation by one fixed step of virtual time. */
+    public void step() {
+        clock.advance(stepNanos);
+        panel.tick(stepNanos);
+        if (renderEveryStep) {
+            render(1.0);
+        }
+        profiler.endFrame();
+        ticks++;
+    }
+
+    /** Run the given number of steps back-to-back. */
+    public void run(long steps) {
+        for (long i = 0; i < steps; i++) {
+            step();
+        }
+    }
+
+    /** When true, every step also draws into the offscreen image (slower, but exercises rendering). */
+    public void setRenderEveryStep(boolean renderEveryStep) {
+        this.renderEveryStep = renderEveryStep;
+    }
+
+    /** Draw the current state into the offscreen image and return it (width x height, TYPE_INT_RGB). */
+    public BufferedImage render(double alpha) {
+        if (offscreen == null) offscreen = new BufferedImageBackend(null);
+        Graphics2D g2 = offscreen.beginFrame(width, height);
+        panel.drawFrame(g2, width, height, alpha);
+        offscreen.endFrame();
+        return offscreen.getImage();
+    }
+
+    /** Feed a key press into InputManager as if it came from the keyboard. */
+    public void pressKey(int keyCode) {
+        InputManager.getInstance().postKey(InputEventQueue.KEY_PRESSED, keyCode, clock.currentTimeMillis());
+    }
+
+    /** Feed a key release into InputManager. */
+    public void releaseKey(int keyCode) {
+        InputManager.getInstance().postKey(InputEventQueue.KEY_RELEASED, keyCode, clock.currentTimeMillis());
+    }
+
+    public GamePanel getPanel() {
+        return panel;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /** Simulated time since the game was created, in milliseconds. */
+    public long getSimulatedMillis() {
+        return ticks * stepNanos / 1_000_000L;
+    }
+
+    /** Soak test: java main.HeadlessGame [ticks] [renderEveryTick] */
+    public static void main(String[] args) {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+        long steps = (args.length > 0) ? Long.parseLong(args[0]) : 100_000L;
+        boolean render = args.length > 1 && Boolean.parseBoolean(args[1]);
+
+        HeadlessGame game = new HeadlessGame(GameWindow.screenWidth, GameWindow.screenHeight - 100, 60);
+        game.setRenderEveryStep(render);
+        game.pressKey(KeyEvent.VK_RIGHT);
+
+        long start = System.nanoTime();
+        game.run(steps);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("HeadlessGame: %d ticks (%.1fs simulated) in %.3fs real = %.0f ticks/s%n",
+                game.getTicks(), game.getSimulatedMillis() / 1000.0, seconds, game.getTicks() / seconds);
+        System.out.println("Player ended at (x=" + game.getPanel().player.x + " y=" + game.getPanel().player.y + ")");
+    }
+}
@@ -1,29 +1,43 @@
 package managers;
+import java.awt.Graphics2D;
 import java.awt.Image;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 
 /**
     The Animation class manages a series of images (frames) and
     the amount of time to display each frame.
+
+    Animations run on game time (GameClock.getGameNanos()), which
+    the game loop advances once per update. Once started, an
+    animation is advanced by AnimationSystem together with all the
+    others, so there is no need to call update() yourself. Like the
+    rest of the game state, an Animation belongs to the game loop
+    thread and is not synchronized; from another thread, start or
+    stop it through GamePanel.runOnGameThread.
 */
 public class Animation {
 
     private final ArrayList<AnimFrame> frames;            // collection of frames for animation
+    private long[] endNanos = new long[8];			// end time of each frame, for binary search
     private int currFrameIndex;					// current frame being displayed
-    private long animTime;					// time that the animation has run for already
-    private long startTime;					// start time of the animation or time since last update
-    private long totalDuration;					// total duration of the animation
+    private long animNanos;					// time that the animation has run for already
+    private long lastNanos;					// game time of the last update
+    private long totalNanos;					// total duration of the animation
+
+    private final GameClock clock = GameClock.getInstance();
 
     private final boolean loop;
     private boolean isActive;
+    boolean registered;						// in AnimationSystem's active list
 
     /**
         Creates a new, empty Animation.
     */
     public Animation(boolean loop) {
         frames = new ArrayList<>();
-        totalDuration = 0;
+        totalNanos = 0;
 	this.loop = loop;
 	isActive = false;
     }
@@ -31,67 +45,115 @@ public class Animation {
 
     /**
         Adds an image to the animation with the specified
-        duration (time to display the image).
+        duration (time to display the image, in milliseconds).
+    */
+    public void addFrame(Image image, long duration)
+    {
+        addFrame(new AnimFrame(image), duration);
+    }
+
+
+    /**
+        Adds an atlas region (e.g. a sprite-sheet frame) to the animation
+        with the specified duration.
+    */
+    public void addFrame(AtlasRegion region, long duration)
+    {
+        addFrame(new AnimFrame(region), duration);
+    }
+
+
+    /**
+        Adds every region (e.g. all frames of a sliced sheet), each shown
+        for the same duration.
     */
-    public synchronized void addFrame(Image image, long duration)
+    public void addFrames(Iterable<AtlasRegion> regions, long durationEach)
     {
-        totalDuration += duration;
-        frames.add(new AnimFrame(image, totalDuration));
+        for (AtlasRegion region : regions) {
+            addFrame(region, durationEach);
+        }
+    }
+
+
+    private void addFrame(AnimFrame frame, long duration) {
+        totalNanos += duration * 1_000_000L;
+        if (frames.size() == endNanos.length) {
+            endNanos = Arrays.copyOf(endNanos, endNanos.length * 2);
+        }
+        endNanos[frames.size()] = totalNanos;
+        frames.add(frame);
     }
 
 
     /**
         Starts this animation over from the beginning.
     */
-    public synchronized void start() {
+    public void start() {
 	isActive = true;
-        animTime = 0;						// reset time animation has run for to zero
+        animNanos = 0;						// reset time animation has run for to zero
         currFrameIndex = 0;					// reset current frame to first frame
-	startTime = System.currentTimeMillis();			// reset start time to current time
+	lastNanos = clock.getGameNanos();			// count from the current game time
+	if (!registered)
+	    AnimationSystem.getInstance().add(this);		// advanced each update from now on
     }
 
 
     /**
         Terminates this animation.
     */
-    public synchronized void stop() {
+    public void stop() {
 	isActive = false;
     }
 
 
     /**
-        Updates this animation's current image (frame), if
-        neccesary.
+        Updates this animation's current image (frame) to the
+        current game time, if neccesary.
+    */
+    public void update() {
+	update(clock.getGameNanos());
+    }
+
+
+    /**
+        Updates this animation's current image (frame) to the given
+        game time in nanoseconds.
     */
-    public synchronized void update() {
+    public void update(long now) {
 
 	if (!isActive)
 	    return;
 
-        long currTime = System.currentTimeMillis();		// find the current time
-	long elapsedTime = currTime - startTime;		// find how much time has elapsed since last update
-	startTime = currTime;					// set start time to current time
+	long elapsed = now - lastNanos;				// find how much time has elapsed since last update
+	lastNanos = now;
 
-        if (frames.size() > 1) {
-            animTime += elapsedTime;				// add elapsed time to amount of time animation has run for
-            if (animTime >= totalDuration) {			// if the time animation has run for > total duration
+        if (frames.size() > 1 && elapsed > 0) {
+            animNanos += elapsed;				// add elapsed time to amount of time animation has run for
+            if (animNanos >= totalNanos) {			// if the time animation has run for > total duration
 		if (loop) {
-                    animTime = animTime % totalDuration;	// reset time animation has run for
-                    currFrameIndex = 0;				// reset current frame to first frame
+                    animNanos = animNanos % totalNanos;		// reset time animation has run for
 		}
 		else { 
 	            isActive = false;				// set to false to terminate animation
+	            return;
 		}
             }
+            currFrameIndex = findFrame(animNanos);
+        }
+	
+    }
 
-	    if (!isActive)
-	       return;
 
-            while (animTime > getFrame(currFrameIndex).endTime) {
-                currFrameIndex++;				// set frame corresponding to time animation has run for
-            }
+    // first frame whose end time is at or after t (binary search over endNanos)
+    private int findFrame(long t) {
+        int lo = 0;
+        int hi = frames.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (endNanos[mid] < t) lo = mid + 1;
+            else hi = mid;
         }
-	
+        return lo;
     }
 
 
@@ -99,21 +161,48 @@ public class Animation {
         Gets this Animation's current image. Returns null if this
         animation has no images.
     */
-    public synchronized Image getImage() {
+    public Image getImage() {
         if (frames.isEmpty()) {
             return null;
         }
         else {
-            return getFrame(currFrameIndex).image;
+            AnimFrame frame = getFrame(currFrameIndex);
+            return (frame.region != null) ? frame.region.getImage() : frame.image;
         }
     }
 
 
+    /**
+        Gets the current frame's atlas region, or null if the frame
+        is a plain image.
+    */
+    public AtlasRegion getRegion() {
+        return frames.isEmpty() ? null : getFrame(currFrameIndex).region;
+    }
+
+
+    /**
+        Draws the current frame at (x, y). Atlas frames are drawn
+        straight from their page, without a separate image.
+    */
+    public void draw(Graphics2D g2, int x, int y) {
+        if (frames.isEmpty()) return;
+        AnimFrame frame = getFrame(currFrameIndex);
+        if (frame.region != null) frame.region.draw(g2, x, y);
+        else g2.drawImage(frame.image, x, y, null);
+    }
+
+
     public int getNumFrames() {					// find out how many frames in animation
 	return frames.size();
     }
 
 
+    public int getCurrentFrameIndex() {
+	return currFrameIndex;
+    }
+
+
     private AnimFrame getFrame(int i) {				// returns ith frame in the collection
         return frames.get(i);
     }
@@ -124,14 +213,17 @@ public class Animation {
     }
 
 
-    private class AnimFrame {					// inner class for the frames of the animation
+    private static class AnimFrame {				// inner class for the frames of the animation
 
         Image image;
-        long endTime;
+        AtlasRegion region;                  // set instead of image for atlas / sprite-sheet frames
 
-        public AnimFrame(Image image, long endTime) {
+        public AnimFrame(Image image) {
             this.image = image;
-            this.endTime = endTime;
+        }
+
+        public AnimFrame(AtlasRegion region) {
+            this.region = region;
         }
     }
 
@@ -0,0 +1,76 @@
+package managers;
+
+import java.util.ArrayDeque;
+
+/**
+ * AnimationSystem: advances every running Animation in one pass per update.
+ *
+ * Animation.start() registers the animation here; GamePanel.tick() calls update() right after
+ * ticking GameClock, so every animation reads the same game time once, and pausing game time
+ * freezes them all together. Finished or stopped animations drop out on the next pass.
+ *
+ * Like Animation itself, this belongs to the game loop thread and is not synchronized: call
+ * start() from update code, or from other threads (e.g. a Swing button) through
+ * GamePanel.runOnGameThread. Newly started animations join the batch at the next update.
+ */
+public class AnimationSystem {
+    private static AnimationSystem instance = null;
+
+    private final GameClock clock = GameClock.getInstance();
+    private final ArrayDeque<Animation> added = new ArrayDeque<>();
+    private Animation[] active = new Animation[64];
+    private int count = 0;
+
+    public AnimationSystem() { }
+
+    public static synchronized AnimationSystem getInstance() {
+        if (instance == null) instance = new AnimationSystem();
+        return instance;
+    }
+
+    /** Include an animation in the batch pass (Animation.start() does this for you). */
+    public void add(Animation anim) {
+        added.offer(anim);
+    }
+
+    /** Advance all running animations to the current game time. */
+    public void update() {
+        Animation a;
+        while ((a = added.poll()) != null) {
+            if (a.registered) continue;
+            a.registered = true;
+            if (count == active.length) {
+                active = java.util.Arrays.copyOf(active, count * 2);
+            }
+            active[count++] = a;
+        }
+
+        long now = clock.getGameNanos();
+        for (int i = 0; i < count; i++) {
+            a = active[i];
+            a.update(now);
+            if (!a.isStillActive()) {
+                // swap-remove; order doesn't matter
+                a.registered = false;
+                active[i] = active[--count];
+                active[count] = null;
+                i--;
+            }
+        }
+    }
+
+    /** Number of animations currently being advanced. */
+    public int size() {
+        return count;
+    }
+
+    /** Drop every animation (they keep their state; start() adds them again). */
+    public void clear() {
+        added.clear();
+        for (int i = 0; i < count; i++) {
+            active[i].registered = false;
+            active[i] = null;
+        }
+        count = 0;
+    }
+}
@@ -0,0 +1,275 @@
+package managers;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+
+/**
+ * AssetArchive: read side of the packed asset file written by AssetPacker.
+ *
+ * The whole archive is memory-mapped once; entries are looked up by their original path
+ * ("src/logo/logo.png"), so ImageManager, SoundManager and DialogueManager ask the default archive
+ * first and fall back to loose files when there is none or the path isn't in it.
+ *
+ * Layout (little-endian):
+ *   header   int magic, int version, int entryCount, int indexBytes
+ *   index    per entry: short nameLength, UTF-8 name, byte type, long offset, int length, int[6] meta
+ *   payloads each starting on a 64-byte boundary
+ *     IMAGE  width*height ARGB ints            meta: width, height, hasAlpha
+ *     SOUND  PCM frames as decoded              meta: sampleRate bits, channels, sampleBits, frameSize, bigEndian, signed
+ *     TEXT   UTF-8 bytes
+ *     RAW    file bytes as-is
+ */
+public class AssetArchive {
+    static final int MAGIC = 0x4B415047;        // "GPAK" read little-endian
+    static final int VERSION = 1;
+    static final int ALIGN = 64;
+    static final int HEADER_BYTES = 16;
+    static final int META_INTS = 6;
+
+    public static final byte TYPE_RAW = 0;
+    public static final byte TYPE_IMAGE = 1;
+    public static final byte TYPE_SOUND = 2;
+    public static final byte TYPE_TEXT = 3;
+
+    public static final String DEFAULT_PATH = "assets.pak";
+
+    private static volatile AssetArchive defaultArchive = null;
+
+    /** One archive entry: where its payload lives in the mapping, plus type-specific metadata. */
+    public static final class Entry {
+        public final String name;
+        public final byte type;
+        final long offset;
+        public final int length;
+        final int[] meta;
+
+        Entry(String name, byte type, long offset, int length, int[] meta) {
+            this.name = name;
+            this.type = type;
+            this.offset = offset;
+            this.length = length;
+            this.meta = meta;
+        }
+    }
+
+    private final File file;
+    private final MappedByteBuffer data;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private AssetArchive(File file, MappedByteBuffer data) throws IOException {
+        this.file = file;
+        this.data = data;
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        if (data.limit() < HEADER_BYTES || data.getInt(0) != MAGIC) throw new IOException("not an asset archive: " + file);
+        if (data.getInt(4) != VERSION) throw new IOException("unsupported archive version " + data.getInt(4) + ": " + file);
+
+        int count = data.getInt(8);
+        int indexBytes = data.getInt(12);
+        if (count < 0 || indexBytes < 0 || indexBytes > data.limit() - HEADER_BYTES) {
+            throw new IOException("corrupt header (" + count + " entries, " + indexBytes + " index bytes) in " + file);
+        }
+        int payloadStart = HEADER_BYTES + indexBytes;
+
+        // The index may only be read up to indexBytes; running past it means the archive is damaged
+        ByteBuffer index = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        index.position(HEADER_BYTES).limit(payloadStart);
+        try {
+            for (int i = 0; i < count; i++) {
+                byte[] nameBytes = new byte[index.getShort() & 0xffff];
+                index.get(nameBytes);
+                String name = new String(nameBytes, StandardCharsets.UTF_8);
+                byte type = index.get();
+                long offset = index.getLong();
+                int length = index.getInt();
+                int[] meta = new int[META_INTS];
+                for (int m = 0; m < META_INTS; m++) meta[m] = index.getInt();
+                if (offset < payloadStart || length < 0 || offset + length > data.limit() || !validMeta(type, length, meta)) {
+                    throw new IOException("corrupt entry " + name + " in " + file);
+                }
+                entries.put(name, new Entry(name, type, offset, length, meta));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("truncated index in " + file, e);
+        }
+    }
+
+    // Metadata the typed getters rely on: image pixels fit the payload, sounds have a frame size
+    private static boolean validMeta(byte type, int length, int[] meta) {
+        if (type == TYPE_IMAGE) {
+            return meta[0] >= 0 && meta[1] >= 0 && (long) meta[0] * meta[1] * 4 <= length;
+        }
+        if (type == TYPE_SOUND) {
+            return meta[3] > 0;
+        }
+        return true;
+    }
+
+    /** Map an archive file read-only and read its index. */
+    public static AssetArchive open(String path) throws IOException {
+        File f = new File(path);
+        try (FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException("archive larger than 2 GB: " + f);
+            // The mapping stays valid after the channel is closed
+            return new AssetArchive(f, ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /**
+     * Open path as the archive the managers consult first. Does nothing (and returns false) if the
+     * file doesn't exist, which is the normal case during development with loose files.
+     */
+    public static boolean openDefault(String path) {
+        if (!new File(path).isFile()) return false;
+        try {
+            defaultArchive = open(path);
+            System.out.println("AssetArchive: using " + path + " (" + defaultArchive.size() + " entries)");
+            return true;
+        } catch (IOException e) {
+            System.out.println("AssetArchive: cannot open " + path + ", using loose files: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** The archive opened by openDefault, or null when running from loose files. */
+    public static AssetArchive getDefault() {
+        return defaultArchive;
+    }
+
+    public static void setDefault(AssetArchive archive) {
+        defaultArchive = archive;
+    }
+
+    static String normalize(String path) {
+        String p = path.replace('\\', '/');
+        while (p.startsWith("./")) p = p.substring(2);
+        return p;
+    }
+
+    public Entry getEntry(String path) {
+        return entries.get(normalize(path));
+    }
+
+    public boolean contains(String path) {
+        return entries.containsKey(normalize(path));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public List<String> names() {
+        List<String> names = new ArrayList<>(entries.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /** Read-only view of an entry's payload inside the mapping (no copy), or null if absent. */
+    public ByteBuffer slice(String path) {
+        Entry e = getEntry(path);
+        return (e == null) ? null : slice(e);
+    }
+
+    private ByteBuffer slice(Entry e) {
+        return data.slice((int) e.offset, e.length).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * The image stored for path, or null if absent / not an image. Pixels are already decoded, so
+     * this is one bulk copy from the mapping into the image's int array (Java2D needs a heap array).
+     */
+    public BufferedImage getImage(String path) {
+        Entry e = getEntry(path);
+        if (e == null || e.type != TYPE_IMAGE) return null;
+        int w = e.meta[0], h = e.meta[1];
+        BufferedImage img = new BufferedImage(w, h, (e.meta[2] != 0) ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+        slice(e).asIntBuffer().get(pixels, 0, w * h);
+        return img;
+    }
+
+    /** PCM audio for path streamed straight out of the mapping, or null if absent / not a sound. */
+    public AudioInputStream getAudioStream(String path) {
+        Entry e = getEntry(path);
+        if (e == null || e.type != TYPE_SOUND) return null;
+        AudioFormat format = getAudioFormat(e);
+        return new AudioInputStream(new BufferInputStream(slice(e)), format, e.length / format.getFrameSize());
+    }
+
+    public AudioFormat getAudioFormat(Entry e) {
+        int[] m = e.meta;
+        return new AudioFormat(m[5] != 0 ? AudioFormat.Encoding.PCM_SIGNED : AudioFormat.Encoding.PCM_UNSIGNED,
+                Float.intBitsToFloat(m[0]), m[2], m[1], m[3], Float.intBitsToFloat(m[0]), m[4] != 0);
+    }
+
+    /** Text entry decoded as UTF-8, or null if absent. */
+    public String getText(String path) {
+        ByteBuffer b = slice(path);
+        return (b == null) ? null : StandardCharsets.UTF_8.decode(b).toString();
+    }
+
+    /** Text entry split into lines (same result as Files.readAllLines), or null if absent. */
+    public List<String> getLines(String path) {
+        String text = getText(path);
+        if (text == null) return null;
+        if (text.isEmpty()) return new ArrayList<>();
+        List<String> lines = new ArrayList<>(Arrays.asList(text.split("\r\n|\r|\n", -1)));
+        if (lines.get(lines.size() - 1).isEmpty()) lines.remove(lines.size() - 1);   // trailing newline
+        return lines;
+    }
+
+    /** InputStream over a ByteBuffer, so AudioSystem can read a mapped payload without copying it first. */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buf;
+
+        BufferInputStream(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        @Override
+        public int read() {
+            return buf.hasRemaining() ? (buf.get() & 0xff) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buf.hasRemaining()) return -1;
+            int n = Math.min(len, buf.remaining());
+            buf.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int k = (int) Math.max(0, Math.min(n, buf.remaining()));
+            buf.position(buf.position() + k);
+            return k;
+        }
+
+        @Override
+        public int available() {
+            return buf.remaining();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package managers;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AssetLoader: decodes images, sounds and dialogue scripts on a small background pool so the
+ * game doesn't hitch the first time something is used.
+ *
+ * - loadManifest("src/assets.manifest") queues every asset listed there. A manifest line is
+ *   "<image|sound|dialogue> <name> <path>"; blank lines and lines starting with '#' are ignored.
+ * - getProgress() / isDone() drive the loading bar that LogoEntity draws under the splash.
+ * - The managers ask for a path when they need it (await / awaitByPath). Only that asset is waited
+ *   for; everything else keeps loading in the background. Paths that were never queued return null
+ *   and the caller loads them itself, as before.
+ *
+ * Decoded images go into ImageManager's cache, so getCachedImage(path) finds them too. When a packed
+ * AssetArchive is open, everything (including the manifest itself) is read from it instead of src/.
+ */
+public class AssetLoader {
+    public enum Type { IMAGE, SOUND, DIALOGUE }
+
+    private static AssetLoader instance = null;
+
+    private final ThreadPoolExecutor pool;
+    private final Map<String, CompletableFuture<Object>> byName = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Object>> byPath = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger finished = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private AssetLoader() {
+        // Decoding is CPU-bound with a little file I/O; a few threads is plenty and leaves a core for the game
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger count = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "AssetLoader-" + count.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+        pool.allowCoreThreadTimeOut(true);   // threads go away once everything is loaded
+    }
+
+    public static synchronized AssetLoader getInstance() {
+        if (instance == null) instance = new AssetLoader();
+        return instance;
+    }
+
+    /** Queue every asset in a manifest file. Returns the number of assets queued. */
+    public int loadManifest(String manifestPath) {
+        int count = 0;
+        AssetArchive archive = AssetArchive.getDefault();
+        String packed = (archive != null) ? archive.getText(manifestPath) : null;
+        try (BufferedReader br = (packed != null) ? new BufferedReader(new StringReader(packed))
+                                                  : new BufferedReader(new FileReader(manifestPath))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] parts = line.split("\\s+", 3);
+                if (parts.length < 3) {
+                    System.out.println("AssetLoader: bad manifest line: " + line);
+                    continue;
+                }
+                Type type;
+                try {
+                    type = Type.valueOf(parts[0].toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    System.out.println("AssetLoader: unknown asset type: " + parts[0]);
+                    continue;
+                }
+                enqueue(type, parts[1], parts[2]);
+                count++;
+            }
+        } catch (IOException e) {
+            System.out.println("AssetLoader: cannot read manifest " + manifestPath + ": " + e.getMessage());
+        }
+        return count;
+    }
+
+    /**
+     * Queue one asset and return its future (completes with the asset, or null if it failed).
+     * Queuing a path that is already queued (or loaded) just returns the existing future.
+     */
+    public CompletableFuture<Object> enqueue(Type type, String name, String path) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = byPath.putIfAbsent(path, future);
+        if (existing != null) {
+            byName.putIfAbsent(name, existing);
+            return existing;
+        }
+        byName.put(name, future);
+        queued.incrementAndGet();
+        pool.execute(() -> {
+            try {
+                Object asset = decode(type, name, path);
+                if (asset == null) failed.incrementAndGet();
+                future.complete(asset);
+            } catch (Throwable t) {
+                failed.incrementAndGet();
+                System.out.println("AssetLoader: failed to load " + path + ": " + t);
+                future.complete(null);
+            } finally {
+                finished.incrementAndGet();
+            }
+        });
+        return future;
+    }
+
+    /** Forget a loaded path so the next enqueue decodes it again (used when an asset is unloaded). */
+    public void evict(String path) {
+        CompletableFuture<Object> future = byPath.remove(path);
+        if (future != null) byName.values().removeIf(f -> f == future);
+    }
+
+    private Object decode(Type type, String name, String path) throws IOException {
+        switch (type) {
+            case IMAGE:
+                BufferedImage img = ImageManager.loadBufferedImage(path);
+                if (img != null) ImageManager.getCache().put(path, img);
+                return img;
+            case SOUND:
+                return SoundManager.getInstance().loadSound(name, path);   // mixer sample, or Clip as a fallback
+            case DIALOGUE:
+                return DialogueGraph.load(path);      // compiled graph; strings are decoded when shown
+            default:
+                return null;
+        }
+    }
+
+    /** Wait for the asset queued under this name. Returns null if unknown or if it failed to load. */
+    public Object await(String name) {
+        return join(byName.get(name));
+    }
+
+    /** Wait for the asset queued from this path. Returns null if the path was never queued or failed. */
+    public Object awaitByPath(String path) {
+        return join(byPath.get(path));
+    }
+
+    public BufferedImage awaitImage(String path) {
+        Object o = awaitByPath(path);
+        return (o instanceof BufferedImage) ? (BufferedImage) o : null;
+    }
+
+    public DialogueGraph awaitDialogue(String path) {
+        Object o = awaitByPath(path);
+        return (o instanceof DialogueGraph) ? (DialogueGraph) o : null;
+    }
+
+    /** True if the path was queued (loaded or still loading). */
+    public boolean isQueued(String path) {
+        return byPath.containsKey(path);
+    }
+
+    private static Object join(CompletableFuture<Object> future) {
+        if (future == null) return null;
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /** Fraction of queued assets that have finished (loaded or failed), 0..1. 1 when nothing is queued. */
+    public float getProgress() {
+        int total = queued.get();
+        return (total == 0) ? 1f : (float) finished.get() / total;
+    }
+
+    public boolean isDone() {
+        return finished.get() >= queued.get();
+    }
+
+    public int getQueuedCount() { return queued.get(); }
+    public int getFinishedCount() { return finished.get(); }
+    public int getFailedCount() { return failed.get(); }
+}
@@ -0,0 +1,164 @@
+package managers;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+/**
+ * AssetPacker: bakes a directory of loose assets into one archive for shipped builds.
+ *
+ *   java -Djava.awt.headless=true managers.AssetPacker [srcDir=src] [out=assets.pak]
+ *
+ * Images are stored as decoded ARGB pixels, sounds as 16-bit PCM, text as UTF-8, anything else as
+ * raw bytes. Dialogue scripts are stored as text and also compiled into a .dlgc entry next to them,
+ * so the game never has to compile dialogue at runtime (.dlgc files on disk are skipped; the archive's
+ * copy always comes from the script). Entries keep their path (e.g. "src/logo/logo.png"), so code that loads by
+ * path works unchanged. Run from the project root; the game opens assets.pak at startup if present.
+ */
+public class AssetPacker {
+
+    private static final class Packed {
+        final String name;
+        final byte type;
+        final byte[] payload;
+        final int[] meta;
+
+        Packed(String name, byte type, byte[] payload, int[] meta) {
+            this.name = name;
+            this.type = type;
+            this.payload = payload;
+            this.meta = meta;
+        }
+    }
+
+    private final List<Packed> entries = new ArrayList<>();
+
+    /** Add every file under dir (recursively), sorted by path so archives are reproducible. */
+    public void addDirectory(File dir) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        java.util.Arrays.sort(files);
+        for (File f : files) {
+            if (f.isDirectory()) addDirectory(f);
+            else addFile(f);
+        }
+    }
+
+    public void addFile(File f) throws IOException {
+        String name = AssetArchive.normalize(f.getPath());
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".png") || lower.endsWith(".jpg") || lower.endsWith(".jpeg")
+                || lower.endsWith(".gif") || lower.endsWith(".bmp")) {
+            if (addImage(name, f)) return;
+        } else if (lower.endsWith(".wav") || lower.endsWith(".au") || lower.endsWith(".aif") || lower.endsWith(".aiff")) {
+            if (addSound(name, f)) return;
+        } else if (lower.endsWith(".txt") || lower.endsWith(".manifest")) {
+            entries.add(new Packed(name, AssetArchive.TYPE_TEXT, Files.readAllBytes(f.toPath()), new int[AssetArchive.META_INTS]));
+            if (DialogueCompiler.isScript(f)) {
+                entries.add(new Packed(DialogueCompiler.compiledPath(name), AssetArchive.TYPE_RAW,
+                        DialogueCompiler.compile(f), new int[AssetArchive.META_INTS]));
+            }
+            return;
+        } else if (lower.endsWith(".dlgc")) {
+            return;     // compiled from its script above, never copied from a possibly stale file
+        }
+        entries.add(new Packed(name, AssetArchive.TYPE_RAW, Files.readAllBytes(f.toPath()), new int[AssetArchive.META_INTS]));
+    }
+
+    private boolean addImage(String name, File f) throws IOException {
+        BufferedImage img = ImageIO.read(f);
+        if (img == null) return false;
+        int w = img.getWidth(), h = img.getHeight();
+        int[] argb = img.getRGB(0, 0, w, h, null, 0, w);
+        ByteBuffer b = ByteBuffer.allocate(argb.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        b.asIntBuffer().put(argb);
+        boolean alpha = img.getColorModel().hasAlpha();
+        entries.add(new Packed(name, AssetArchive.TYPE_IMAGE, b.array(), new int[] { w, h, alpha ? 1 : 0, 0, 0, 0 }));
+        return true;
+    }
+
+    private boolean addSound(String name, File f) throws IOException {
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(f)) {
+            AudioFormat src = in.getFormat();
+            AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, src.getSampleRate(), 16,
+                    src.getChannels(), src.getChannels() * 2, src.getSampleRate(), false);
+            AudioInputStream stream = AudioSystem.isConversionSupported(pcm, src) ? AudioSystem.getAudioInputStream(pcm, in) : in;
+            AudioFormat fmt = stream.getFormat();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = stream.read(buf)) > 0) out.write(buf, 0, n);
+            int[] meta = {
+                Float.floatToIntBits(fmt.getSampleRate()), fmt.getChannels(), fmt.getSampleSizeInBits(),
+                fmt.getFrameSize(), fmt.isBigEndian() ? 1 : 0,
+                fmt.getEncoding() == AudioFormat.Encoding.PCM_UNSIGNED ? 0 : 1
+            };
+            entries.add(new Packed(name, AssetArchive.TYPE_SOUND, out.toByteArray(), meta));
+            return true;
+        } catch (Exception e) {
+            System.out.println("AssetPacker: storing " + name + " raw (" + e.getMessage() + ")");
+            return false;
+        }
+    }
+
+    private static long align(long v) {
+        return (v + AssetArchive.ALIGN - 1) & ~(long) (AssetArchive.ALIGN - 1);
+    }
+
+    /** Write the archive: header, index, then each payload on a 64-byte boundary. */
+    public void write(File out) throws IOException {
+        int indexBytes = 0;
+        for (Packed p : entries) {
+            indexBytes += 2 + p.name.getBytes(StandardCharsets.UTF_8).length + 1 + 8 + 4 + 4 * AssetArchive.META_INTS;
+        }
+        ByteBuffer head = ByteBuffer.allocate(AssetArchive.HEADER_BYTES + indexBytes).order(ByteOrder.LITTLE_ENDIAN);
+        head.putInt(AssetArchive.MAGIC).putInt(AssetArchive.VERSION).putInt(entries.size()).putInt(indexBytes);
+
+        long offset = align(head.capacity());
+        long[] offsets = new long[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            Packed p = entries.get(i);
+            offsets[i] = offset;
+            byte[] nameBytes = p.name.getBytes(StandardCharsets.UTF_8);
+            head.putShort((short) nameBytes.length).put(nameBytes).put(p.type).putLong(offset).putInt(p.payload.length);
+            for (int m : p.meta) head.putInt(m);
+            offset = align(offset + p.payload.length);
+        }
+        head.flip();
+
+        try (FileChannel ch = FileChannel.open(out.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ch.write(head);
+            for (int i = 0; i < entries.size(); i++) {
+                ch.write(ByteBuffer.wrap(entries.get(i).payload), offsets[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        File src = new File(args.length > 0 ? args[0] : "src");
+        File out = new File(args.length > 1 ? args[1] : AssetArchive.DEFAULT_PATH);
+        AssetPacker packer = new AssetPacker();
+        packer.addDirectory(src);
+        packer.write(out);
+        System.out.println("AssetPacker: " + packer.size() + " entries -> " + out + " (" + out.length() + " bytes)");
+    }
+}
@@ -0,0 +1,48 @@
+package managers;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * AtlasRegion: a lightweight handle to a rectangle inside a larger image (an atlas page or a
+ * sprite sheet). Drawing a region is a sub-image blit from the shared page, so many sprites
+ * share a few large images instead of each owning its own.
+ */
+public class AtlasRegion {
+    private final String name;
+    private final BufferedImage page;
+    private final int x, y, width, height;
+    private BufferedImage subImage;     // created on first getImage(); shares the page's pixels
+
+    public AtlasRegion(String name, BufferedImage page, int x, int y, int width, int height) {
+        this.name = name;
+        this.page = page;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /** Draw the region with its top-left at (dx, dy), unscaled. */
+    public void draw(Graphics2D g2, int dx, int dy) {
+        g2.drawImage(page, dx, dy, dx + width, dy + height, x, y, x + width, y + height, null);
+    }
+
+    /** Draw the region scaled into the rectangle (dx, dy, dw, dh). */
+    public void draw(Graphics2D g2, int dx, int dy, int dw, int dh) {
+        g2.drawImage(page, dx, dy, dx + dw, dy + dh, x, y, x + width, y + height, null);
+    }
+
+    /** The region as an image of its own (a view that shares the page's pixels, not a copy). */
+    public synchronized BufferedImage getImage() {
+        if (subImage == null) subImage = page.getSubimage(x, y, width, height);
+        return subImage;
+    }
+
+    public String getName() { return name; }
+    public BufferedImage getPage() { return page; }
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+}
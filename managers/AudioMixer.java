@@ -0,0 +1,389 @@
+package managers;
+
+import java.io.IOException;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * AudioMixer: software mixer that plays any number of sound effects through one SourceDataLine.
+ *
+ * - Sounds are decoded once into a Sample (16-bit stereo PCM at the mixer rate) and shared by every
+ *   voice that plays them, so the same effect can overlap itself.
+ * - A fixed pool of voices is mixed on a dedicated audio thread in small blocks, with per-voice
+ *   gain and pan. When every voice is busy, play() steals the oldest one (one-shots before loops).
+ * - play() allocates nothing; it returns a voice id for stop()/setGain()/isPlaying().
+ *
+ * Latency is bounded by the line buffer (LINE_BLOCKS blocks of BLOCK_FRAMES, ~46 ms at 44.1 kHz).
+ * If the machine has no audio output, isSupported() is false and SoundManager falls back to Clips.
+ */
+public class AudioMixer implements Runnable {
+    public static final float SAMPLE_RATE = 44100f;
+    public static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);
+
+    private static final int BLOCK_FRAMES = 512;       // frames mixed per pass (~11.6 ms)
+    private static final int LINE_BLOCKS = 4;          // line buffer size in blocks
+    private static final int GAIN_SHIFT = 12;          // fixed-point gain: 1.0 == 4096
+    private static final int DEFAULT_VOICES = 32;
+
+    private static AudioMixer instance = null;
+
+    /** Continuous source mixed alongside the voices (e.g. streamed music). Called on the audio thread. */
+    public interface Stream {
+        /** Add the next frames of stereo 16-bit audio into acc (interleaved left/right). */
+        void mixInto(int[] acc, int frames);
+    }
+
+    /** Decoded, immutable PCM shared between voices: interleaved left/right shorts at SAMPLE_RATE. */
+    public static final class Sample {
+        final short[] data;
+        final int frames;
+
+        Sample(short[] data) {
+            this.data = data;
+            this.frames = data.length / 2;
+        }
+
+        public int getFrames() { return frames; }
+        public long getBytes() { return (long) data.length * 2; }
+        public double getSeconds() { return frames / (double) SAMPLE_RATE; }
+    }
+
+    private static final class Voice {
+        Sample sample;          // null when free
+        int pos;                // next frame to mix
+        boolean loop;
+        float gain = 1f;
+        float pan = 0f;
+        int gainL, gainR;       // fixed-point, gain * pan law * master
+        int generation;         // bumped on every (re)use so stale ids don't touch a new sound
+        long startedAt;
+    }
+
+    private final Voice[] voices;
+    private volatile Stream[] streams = new Stream[0];    // replaced, never modified, so the mix loop can't see a half-edit
+    private final int[] mixBuffer = new int[BLOCK_FRAMES * 2];
+    private final byte[] outBuffer = new byte[BLOCK_FRAMES * 4];
+    private float masterGain = 1f;
+    private long playCounter = 0L;
+    private int stolen = 0;
+
+    private Thread thread;
+    private volatile boolean running = false;
+    private SourceDataLine line;
+
+    public AudioMixer(int voiceCount) {
+        voices = new Voice[Math.max(1, Math.min(voiceCount, 256))];
+        for (int i = 0; i < voices.length; i++) voices[i] = new Voice();
+    }
+
+    public static synchronized AudioMixer getInstance() {
+        if (instance == null) instance = new AudioMixer(DEFAULT_VOICES);
+        return instance;
+    }
+
+    /** True if the default audio device can take our output format. */
+    public static boolean isSupported() {
+        try {
+            return AudioSystem.isLineSupported(new DataLine.Info(SourceDataLine.class, FORMAT));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // ---------------- Decoding ----------------
+
+    /** Decode a stream into a Sample (converted to 16-bit stereo at the mixer rate). */
+    public static Sample decode(AudioInputStream in) throws IOException {
+        AudioInputStream pcm = toPcm16(in);
+        int channels = pcm.getFormat().getChannels();
+        byte[] bytes = pcm.readAllBytes();
+
+        int srcFrames = bytes.length / (channels * 2);
+        short[] interleaved = new short[srcFrames * channels];
+        for (int i = 0; i < interleaved.length; i++) {
+            interleaved[i] = (short) ((bytes[2 * i] & 0xff) | (bytes[2 * i + 1] << 8));
+        }
+        return new Sample(toStereo(interleaved, channels, srcFrames, pcm.getFormat().getSampleRate()));
+    }
+
+    /**
+     * in as signed 16-bit little-endian PCM at its own rate and channel count. A stream that doesn't
+     * say its sample rate (AudioSystem.NOT_SPECIFIED) is taken to be at SAMPLE_RATE; one without a
+     * channel count is rejected.
+     */
+    static AudioInputStream toPcm16(AudioInputStream in) throws IOException {
+        AudioFormat src = in.getFormat();
+        int channels = src.getChannels();
+        if (channels <= 0) throw new IOException("unsupported channel count " + channels + " in " + src);
+        if (!(src.getSampleRate() > 0f)) {
+            src = new AudioFormat(src.getEncoding(), SAMPLE_RATE, src.getSampleSizeInBits(), channels,
+                    src.getFrameSize(), SAMPLE_RATE, src.isBigEndian());
+            in = new AudioInputStream(in, src, in.getFrameLength());
+        }
+        AudioFormat pcm16 = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, src.getSampleRate(), 16,
+                channels, channels * 2, src.getSampleRate(), false);
+        if (src.matches(pcm16)) return in;
+        try {
+            return AudioSystem.getAudioInputStream(pcm16, in);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("cannot convert " + src + " to 16-bit PCM", e);
+        }
+    }
+
+    /** Mix channels down/up to stereo and resample (linear) to SAMPLE_RATE. */
+    static short[] toStereo(short[] src, int channels, int srcFrames, float srcRate) {
+        if (!(srcRate > 0f)) throw new IllegalArgumentException("sample rate must be positive: " + srcRate);
+        double step = srcRate / SAMPLE_RATE;
+        int frames = (int) Math.floor(srcFrames / step);
+        short[] out = new short[frames * 2];
+        for (int f = 0; f < frames; f++) {
+            double at = f * step;
+            int i0 = (int) at;
+            int i1 = Math.min(i0 + 1, srcFrames - 1);
+            double t = at - i0;
+            for (int c = 0; c < 2; c++) {
+                int sc = (channels == 1) ? 0 : Math.min(c, channels - 1);
+                double v = src[i0 * channels + sc] * (1 - t) + src[i1 * channels + sc] * t;
+                out[2 * f + c] = (short) Math.round(v);
+            }
+        }
+        return out;
+    }
+
+    // ---------------- Playback control (any thread) ----------------
+
+    /**
+     * Start a voice. gain is linear (1 = as recorded), pan -1 (left) .. 1 (right).
+     * Returns a voice id, or -1 if sample is null.
+     */
+    public synchronized int play(Sample sample, float gain, float pan, boolean loop) {
+        if (sample == null || sample.frames == 0) return -1;
+        int index = findVoice();
+        Voice v = voices[index];
+        v.sample = sample;
+        v.pos = 0;
+        v.loop = loop;
+        v.gain = gain;
+        v.pan = Math.max(-1f, Math.min(1f, pan));
+        v.generation = (v.generation + 1) & 0x7fffff;
+        v.startedAt = playCounter++;
+        updateGains(v);
+        return (v.generation << 8) | index;
+    }
+
+    // free voice if there is one, otherwise steal: oldest one-shot, or oldest loop if all are loops
+    private int findVoice() {
+        int oldest = -1, oldestLoop = -1;
+        for (int i = 0; i < voices.length; i++) {
+            Voice v = voices[i];
+            if (v.sample == null) return i;
+            if (v.loop) {
+                if (oldestLoop < 0 || v.startedAt < voices[oldestLoop].startedAt) oldestLoop = i;
+            } else if (oldest < 0 || v.startedAt < voices[oldest].startedAt) {
+                oldest = i;
+            }
+        }
+        stolen++;
+        return (oldest >= 0) ? oldest : oldestLoop;
+    }
+
+    private Voice voiceFor(int id) {
+        if (id < 0) return null;
+        Voice v = voices[(id & 0xff) % voices.length];
+        return (v.sample != null && v.generation == (id >>> 8)) ? v : null;
+    }
+
+    public synchronized void stop(int id) {
+        Voice v = voiceFor(id);
+        if (v != null) v.sample = null;
+    }
+
+    /** Stop every voice playing this sample. */
+    public synchronized void stopAll(Sample sample) {
+        for (Voice v : voices) {
+            if (v.sample == sample) v.sample = null;
+        }
+    }
+
+    public synchronized void stopAll() {
+        for (Voice v : voices) v.sample = null;
+    }
+
+    public synchronized boolean isPlaying(Sample sample) {
+        for (Voice v : voices) {
+            if (v.sample == sample) return true;
+        }
+        return false;
+    }
+
+    public synchronized boolean isPlaying(int id) {
+        return voiceFor(id) != null;
+    }
+
+    public synchronized void setGain(int id, float gain) {
+        Voice v = voiceFor(id);
+        if (v != null) {
+            v.gain = gain;
+            updateGains(v);
+        }
+    }
+
+    /** Change the gain of every voice currently playing this sample. */
+    public synchronized void setGain(Sample sample, float gain) {
+        for (Voice v : voices) {
+            if (v.sample == sample) {
+                v.gain = gain;
+                updateGains(v);
+            }
+        }
+    }
+
+    public synchronized void setPan(int id, float pan) {
+        Voice v = voiceFor(id);
+        if (v != null) {
+            v.pan = Math.max(-1f, Math.min(1f, pan));
+            updateGains(v);
+        }
+    }
+
+    public synchronized void setMasterGain(float gain) {
+        masterGain = Math.max(0f, gain);
+        for (Voice v : voices) updateGains(v);
+    }
+
+    // equal-power pan law, folded with the voice and master gains into fixed point
+    private void updateGains(Voice v) {
+        double angle = (v.pan + 1) * Math.PI / 4;
+        float g = v.gain * masterGain * (1 << GAIN_SHIFT);
+        v.gainL = Math.round((float) (Math.cos(angle) * Math.sqrt(2)) * g);
+        v.gainR = Math.round((float) (Math.sin(angle) * Math.sqrt(2)) * g);
+    }
+
+    public synchronized void addStream(Stream stream) {
+        for (Stream s : streams) if (s == stream) return;
+        Stream[] next = java.util.Arrays.copyOf(streams, streams.length + 1);
+        next[streams.length] = stream;
+        streams = next;
+    }
+
+    public synchronized void removeStream(Stream stream) {
+        Stream[] cur = streams;
+        for (int i = 0; i < cur.length; i++) {
+            if (cur[i] == stream) {
+                Stream[] next = new Stream[cur.length - 1];
+                System.arraycopy(cur, 0, next, 0, i);
+                System.arraycopy(cur, i + 1, next, i, cur.length - i - 1);
+                streams = next;
+                return;
+            }
+        }
+    }
+
+    public synchronized int getActiveVoices() {
+        int n = 0;
+        for (Voice v : voices) if (v.sample != null) n++;
+        return n;
+    }
+
+    public int getVoiceCount() { return voices.length; }
+    public int getBlockFrames() { return BLOCK_FRAMES; }
+    public synchronized int getStolenCount() { return stolen; }
+
+    // ---------------- Audio thread ----------------
+
+    /** Open the output line and start the audio thread. Returns false if there is no audio output. */
+    public synchronized boolean start() {
+        if (running) return true;
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, BLOCK_FRAMES * 4 * LINE_BLOCKS);
+            line.start();
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.out.println("AudioMixer: no audio output (" + e.getMessage() + ")");
+            line = null;
+            return false;
+        }
+        running = true;
+        thread = new Thread(this, "AudioMixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void shutdown() {
+        running = false;
+        Thread t = thread;
+        if (t != null) {
+            try {
+                t.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (line != null) {
+                line.close();
+                line = null;
+            }
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            mix(outBuffer, BLOCK_FRAMES);
+            line.write(outBuffer, 0, outBuffer.length);   // blocks while the line buffer is full: paces the thread
+        }
+    }
+
+    /**
+     * Mix the next frames (at most getBlockFrames()) of every active voice into out as 16-bit LE
+     * stereo. The audio thread calls this; without a running thread it renders offline.
+     */
+    public synchronized void mix(byte[] out, int frames) {
+        int[] acc = mixBuffer;
+        frames = Math.min(frames, BLOCK_FRAMES);
+        java.util.Arrays.fill(acc, 0, frames * 2, 0);
+        for (Voice v : voices) {
+            Sample s = v.sample;
+            if (s == null) continue;
+            short[] d = s.data;
+            int total = s.frames;
+            int p = v.pos;
+            int gl = v.gainL, gr = v.gainR;
+            for (int i = 0; i < frames; i++) {
+                if (p >= total) {
+                    if (!v.loop) {
+                        v.sample = null;
+                        break;
+                    }
+                    p = 0;
+                }
+                acc[2 * i] += (d[2 * p] * gl) >> GAIN_SHIFT;
+                acc[2 * i + 1] += (d[2 * p + 1] * gr) >> GAIN_SHIFT;
+                p++;
+            }
+            v.pos = p;
+        }
+        for (Stream stream : streams) {
+            stream.mixInto(acc, frames);
+        }
+        for (int i = 0; i < frames * 2; i++) {
+            int a = acc[i];
+            if (a > Short.MAX_VALUE) a = Short.MAX_VALUE;
+            else if (a < Short.MIN_VALUE) a = Short.MIN_VALUE;
+            out[2 * i] = (byte) a;
+            out[2 * i + 1] = (byte) (a >> 8);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package managers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DialogueCompiler: turns a dialogue script into the binary graph DialogueGraph loads.
+ *
+ *   java managers.DialogueCompiler [dir=src/dialouge]     compiles every .txt to a .dlgc next to it
+ *
+ * AssetPacker compiles the scripts in SCRIPT_DIR into the archive itself, and DialogueGraph writes
+ * the .dlgc back after compiling a changed script, so running this by hand is optional.
+ *
+ * Script syntax (plain scripts from before still compile to the same sequence of lines):
+ *   Person 1: Hello there        a line; the text before the first ':' is the speaker
+ *   Just narration               a line without a speaker (no ':' in the first 32 characters)
+ *   @label                       names the next line
+ *   * Sure -> yes                a choice on the line above, jumping to @yes (no "->": carry on below)
+ *   -> label                     after the line above, continue at @label ("-> END" ends the dialogue)
+ *   (blank line)                 ends the dialogue; whatever follows is only reachable by label
+ *
+ * Output (big-endian): header, speaker table, a deduplicated UTF-8 string pool, then node, edge and
+ * label arrays as plain ints, so loading is one read plus bulk array copies.
+ */
+public class DialogueCompiler {
+    static final int MAGIC = 0x444C4743;    // "DLGC"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 52;
+    static final int NODE_INTS = 6;         // type, speaker, text, next, firstEdge, edgeCount
+
+    static final int TYPE_LINE = 0;
+    static final int TYPE_END = 1;
+
+    private static final int MAX_SPEAKER = 32;
+
+    /** Where dialogue scripts live (one .txt per dialogue). */
+    public static final String SCRIPT_DIR = "src/dialouge";
+
+    // string pool
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    // speakers (indices into the speaker table, which holds string ids)
+    private final List<Integer> speakers = new ArrayList<>();
+    private final Map<String, Integer> speakerIds = new HashMap<>();
+
+    private final List<int[]> nodes = new ArrayList<>();
+    private final List<int[]> edges = new ArrayList<>();         // text, target (label index until resolved)
+    private final List<String> labelNames = new ArrayList<>();
+    private final List<Integer> labelNodes = new ArrayList<>();
+    private final Map<String, Integer> labelIds = new HashMap<>();
+
+    private int intern(String s) {
+        Integer id = stringIds.get(s);
+        if (id == null) {
+            id = strings.size();
+            strings.add(s);
+            stringIds.put(s, id);
+        }
+        return id;
+    }
+
+    private int speaker(String name) {
+        Integer id = speakerIds.get(name);
+        if (id == null) {
+            id = speakers.size();
+            speakers.add(intern(name));
+            speakerIds.put(name, id);
+        }
+        return id;
+    }
+
+    // labels are referenced before they are defined, so targets hold -(labelIndex + 2) until resolve()
+    private int labelRef(String name) {
+        if (name.equalsIgnoreCase("END")) return -1;
+        Integer id = labelIds.get(name);
+        if (id == null) {
+            id = labelNames.size();
+            labelNames.add(name);
+            labelNodes.add(null);
+            labelIds.put(name, id);
+        }
+        return -(id + 2);
+    }
+
+    /** Compile one script (its text) into the binary form; srcLength / srcModified are stored for staleness checks. */
+    public static byte[] compile(List<String> script, long srcLength, long srcModified) {
+        return new DialogueCompiler().run(script, srcLength, srcModified);
+    }
+
+    public static byte[] compile(File script) throws IOException {
+        return compile(Files.readAllLines(script.toPath(), StandardCharsets.UTF_8), script.length(), script.lastModified());
+    }
+
+    private byte[] run(List<String> script, long srcLength, long srcModified) {
+        List<String> pendingLabels = new ArrayList<>();
+        int last = -1;                          // most recent node, for choices and jumps
+        List<List<int[]>> edgesPerNode = new ArrayList<>();
+
+        for (String raw : script) {
+            String line = raw.strip();
+            if (line.startsWith("@")) {
+                pendingLabels.add(line.substring(1).trim());
+                continue;
+            }
+            if (line.startsWith("*") && last >= 0) {
+                String body = line.substring(1);
+                int arrow = body.lastIndexOf("->");
+                String text = (arrow >= 0) ? body.substring(0, arrow).trim() : body.trim();
+                int target = (arrow >= 0) ? labelRef(body.substring(arrow + 2).trim()) : Integer.MIN_VALUE;   // MIN = fall through
+                edgesPerNode.get(last).add(new int[] { intern(text), target });
+                continue;
+            }
+            if (line.startsWith("->") && last >= 0) {
+                nodes.get(last)[3] = labelRef(line.substring(2).trim());
+                continue;
+            }
+
+            int[] node = new int[NODE_INTS];
+            if (line.isEmpty()) {
+                node[0] = TYPE_END;
+                node[1] = -1;
+                node[2] = intern("");
+            } else {
+                int colon = line.indexOf(':');
+                node[0] = TYPE_LINE;
+                if (colon > 0 && colon <= MAX_SPEAKER) {
+                    node[1] = speaker(line.substring(0, colon).trim());
+                    node[2] = intern(line.substring(colon + 1).trim());
+                } else {
+                    node[1] = -1;
+                    node[2] = intern(line);
+                }
+            }
+            node[3] = Integer.MIN_VALUE;        // default: the node that follows
+            int index = nodes.size();
+            nodes.add(node);
+            edgesPerNode.add(new ArrayList<>());
+            for (String label : pendingLabels) {
+                labelNodes.set(-labelRef(label) - 2, index);
+            }
+            pendingLabels.clear();
+            last = index;
+        }
+
+        // resolve fall-through and label targets, and flatten edges
+        int count = nodes.size();
+        for (int i = 0; i < count; i++) {
+            int[] node = nodes.get(i);
+            int follow = (i + 1 < count) ? i + 1 : -1;
+            node[3] = (node[0] == TYPE_END) ? -1 : resolve(node[3], follow);
+            node[4] = edges.size();
+            node[5] = edgesPerNode.get(i).size();
+            for (int[] e : edgesPerNode.get(i)) {
+                edges.add(new int[] { e[0], resolve(e[1], follow) });
+            }
+        }
+        // label names go into the pool too, so DialogueGraph can look them up without extra data
+        for (int i = 0; i < labelNames.size(); i++) {
+            if (labelNodes.get(i) != null) intern(labelNames.get(i));
+        }
+        return write(srcLength, srcModified);
+    }
+
+    private int resolve(int target, int follow) {
+        if (target == Integer.MIN_VALUE) return follow;
+        if (target >= -1) return target;
+        Integer node = labelNodes.get(-target - 2);
+        if (node == null) {
+            System.out.println("DialogueCompiler: unknown label @" + labelNames.get(-target - 2) + ", ending there");
+            return -1;
+        }
+        return node;
+    }
+
+    private byte[] write(long srcLength, long srcModified) {
+        byte[][] encoded = new byte[strings.size()][];
+        int poolBytes = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            poolBytes += encoded[i].length;
+        }
+        int poolPadded = (poolBytes + 3) & ~3;
+        int labelCount = 0;
+        for (Integer n : labelNodes) if (n != null) labelCount++;
+
+        int size = HEADER_BYTES + 4 * speakers.size() + 4 * (strings.size() + 1) + poolPadded
+                + 4 * NODE_INTS * nodes.size() + 8 * edges.size() + 8 * labelCount;
+        ByteBuffer b = ByteBuffer.allocate(size);
+        b.putInt(MAGIC).putInt(VERSION).putLong(srcLength).putLong(srcModified)
+         .putInt(speakers.size()).putInt(strings.size()).putInt(poolBytes)
+         .putInt(nodes.size()).putInt(edges.size()).putInt(labelCount)
+         .putInt(nodes.isEmpty() ? -1 : 0);
+        for (int s : speakers) b.putInt(s);
+        int offset = 0;
+        for (byte[] e : encoded) {
+            b.putInt(offset);
+            offset += e.length;
+        }
+        b.putInt(offset);
+        for (byte[] e : encoded) b.put(e);
+        b.position(b.position() + (poolPadded - poolBytes));
+        for (int[] node : nodes) for (int v : node) b.putInt(v);
+        for (int[] e : edges) b.putInt(e[0]).putInt(e[1]);
+        for (int i = 0; i < labelNames.size(); i++) {
+            if (labelNodes.get(i) == null) continue;
+            b.putInt(stringIds.get(labelNames.get(i))).putInt(labelNodes.get(i));
+        }
+        return b.array();
+    }
+
+    /** True for a .txt file inside a directory named like SCRIPT_DIR. */
+    public static boolean isScript(File f) {
+        File parent = f.getAbsoluteFile().getParentFile();
+        return f.getName().endsWith(".txt") && parent != null && parent.getName().equals(new File(SCRIPT_DIR).getName());
+    }
+
+    /** The compiled file that belongs to a script: same path with .dlgc instead of .txt. */
+    public static String compiledPath(String scriptPath) {
+        int dot = scriptPath.lastIndexOf('.');
+        int slash = Math.max(scriptPath.lastIndexOf('/'), scriptPath.lastIndexOf('\\'));
+        return ((dot > slash) ? scriptPath.substring(0, dot) : scriptPath) + ".dlgc";
+    }
+
+    public static void main(String[] args) throws IOException {
+        File dir = new File(args.length > 0 ? args[0] : SCRIPT_DIR);
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".txt"));
+        if (files == null) {
+            System.out.println("DialogueCompiler: no such directory " + dir);
+            return;
+        }
+        for (File f : files) {
+            byte[] out = compile(f);
+            File target = new File(compiledPath(f.getPath()));
+            Files.write(target.toPath(), out);
+            System.out.println("DialogueCompiler: " + f + " -> " + target + " (" + out.length + " bytes)");
+        }
+    }
+}
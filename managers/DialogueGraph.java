@@ -0,0 +1,177 @@
+package managers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * DialogueGraph: a compiled dialogue script (see DialogueCompiler for syntax and layout).
+ *
+ * Loading is a single read of the .dlgc file (or a slice of the packed archive) followed by bulk
+ * int[] copies; nothing is parsed per line. Strings stay UTF-8 in the pool and are decoded the
+ * first time a node is shown. If no up-to-date .dlgc exists the script is compiled in memory and,
+ * when running from loose files, the result is written back so the next load is a plain read again.
+ *
+ * Nodes are ints: walk them with start(), next(node) and choiceTarget(node, i); -1 means the end.
+ */
+public class DialogueGraph {
+    private final String path;
+    private final int[] speakers;       // speaker index -> string id
+    private final int[] offsets;        // string id -> pool offset (count + 1 entries)
+    private final byte[] pool;
+    private final String[] decoded;     // lazily filled
+    private final int[] nodes;          // DialogueCompiler.NODE_INTS per node
+    private final int[] edges;          // text, target per edge
+    private final int[] labels;         // name string id, node per label
+    private final int start;
+
+    private DialogueGraph(String path, ByteBuffer b) throws IOException {
+        this.path = path;
+        b.order(ByteOrder.BIG_ENDIAN);
+        if (b.remaining() < DialogueCompiler.HEADER_BYTES || b.getInt() != DialogueCompiler.MAGIC || b.getInt() != DialogueCompiler.VERSION) {
+            throw new IOException("not a compiled dialogue: " + path);
+        }
+        b.getLong();    // source length / mtime, only used by isStale
+        b.getLong();
+        int speakerCount = b.getInt();
+        int stringCount = b.getInt();
+        int poolBytes = b.getInt();
+        int nodeCount = b.getInt();
+        int edgeCount = b.getInt();
+        int labelCount = b.getInt();
+        start = b.getInt();
+
+        speakers = new int[speakerCount];
+        b.asIntBuffer().get(speakers);
+        b.position(b.position() + 4 * speakerCount);
+        offsets = new int[stringCount + 1];
+        b.asIntBuffer().get(offsets);
+        b.position(b.position() + 4 * offsets.length);
+        pool = new byte[poolBytes];
+        b.get(pool);
+        b.position(b.position() + (((poolBytes + 3) & ~3) - poolBytes));
+        nodes = new int[nodeCount * DialogueCompiler.NODE_INTS];
+        b.asIntBuffer().get(nodes);
+        b.position(b.position() + 4 * nodes.length);
+        edges = new int[edgeCount * 2];
+        b.asIntBuffer().get(edges);
+        b.position(b.position() + 4 * edges.length);
+        labels = new int[labelCount * 2];
+        b.asIntBuffer().get(labels);
+        decoded = new String[stringCount];
+    }
+
+    /**
+     * Load the graph for a script path (e.g. src/dialouge/test.txt): the compiled .dlgc from the
+     * archive or disk when it is current, otherwise the script compiled on the spot.
+     */
+    public static DialogueGraph load(String scriptPath) throws IOException {
+        String compiled = DialogueCompiler.compiledPath(scriptPath);
+        AssetArchive archive = AssetArchive.getDefault();
+        if (archive != null) {
+            ByteBuffer slice = archive.slice(compiled);
+            if (slice != null) return new DialogueGraph(scriptPath, slice.duplicate());
+            List<String> lines = archive.getLines(scriptPath);
+            if (lines != null) return new DialogueGraph(scriptPath, ByteBuffer.wrap(DialogueCompiler.compile(lines, 0, 0)));
+        }
+
+        File source = new File(scriptPath);
+        File binary = new File(compiled);
+        if (binary.isFile()) {
+            ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(binary.toPath()));
+            if (!source.isFile() || !isStale(b, source)) return new DialogueGraph(scriptPath, b);
+        }
+        if (!source.isFile()) throw new java.io.FileNotFoundException(scriptPath);
+        byte[] bytes = DialogueCompiler.compile(source);
+        writeBack(binary, bytes);
+        return new DialogueGraph(scriptPath, ByteBuffer.wrap(bytes));
+    }
+
+    // Save a fresh compile next to the script (via a temp file, so a concurrent load never reads half a file)
+    private static void writeBack(File binary, byte[] bytes) {
+        try {
+            File dir = binary.getAbsoluteFile().getParentFile();
+            Path tmp = Files.createTempFile(dir.toPath(), binary.getName(), ".tmp");
+            try {
+                Files.write(tmp, bytes);
+                Files.move(tmp, binary.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            System.out.println("DialogueGraph: cannot save " + binary + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean isStale(ByteBuffer b, File source) {
+        if (b.remaining() < DialogueCompiler.HEADER_BYTES) return true;
+        return b.getLong(8) != source.length() || b.getLong(16) != source.lastModified();
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /** First node, or -1 for an empty script. */
+    public int start() {
+        return start;
+    }
+
+    public int nodeCount() {
+        return nodes.length / DialogueCompiler.NODE_INTS;
+    }
+
+    /** True for -1 and for the end nodes blank lines compile to. */
+    public boolean isEnd(int node) {
+        return node < 0 || node >= nodeCount() || nodes[node * DialogueCompiler.NODE_INTS] == DialogueCompiler.TYPE_END;
+    }
+
+    public int next(int node) {
+        return nodes[node * DialogueCompiler.NODE_INTS + 3];
+    }
+
+    public String text(int node) {
+        return string(nodes[node * DialogueCompiler.NODE_INTS + 2]);
+    }
+
+    /** Speaker name, or null for narration. Same speaker, same String instance. */
+    public String speaker(int node) {
+        int s = nodes[node * DialogueCompiler.NODE_INTS + 1];
+        return (s < 0) ? null : string(speakers[s]);
+    }
+
+    public int choiceCount(int node) {
+        return nodes[node * DialogueCompiler.NODE_INTS + 5];
+    }
+
+    public String choiceText(int node, int choice) {
+        return string(edges[2 * (nodes[node * DialogueCompiler.NODE_INTS + 4] + choice)]);
+    }
+
+    public int choiceTarget(int node, int choice) {
+        return edges[2 * (nodes[node * DialogueCompiler.NODE_INTS + 4] + choice) + 1];
+    }
+
+    /** Node named by "@label", or -1. */
+    public int labelNode(String label) {
+        for (int i = 0; i < labels.length; i += 2) {
+            if (string(labels[i]).equals(label)) return labels[i + 1];
+        }
+        return -1;
+    }
+
+    private String string(int id) {
+        String s = decoded[id];
+        if (s == null) {
+            s = new String(pool, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+            decoded[id] = s;
+        }
+        return s;
+    }
+}
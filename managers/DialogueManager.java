@@ -1,18 +1,24 @@
 package managers;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * DialogueManager: loads dialogue lines from a text file and returns them one-by-one.
- * 
+ * DialogueManager: reads dialogue lines from script files and returns them one-by-one.
+ *
+ * Scripts are opened as DialogueSources (memory-mapped and indexed, see DialogueSource), so loading
+ * is cheap and only the lines actually shown are decoded. Every script opened stays available:
+ * loadFromFile switches the current script without throwing the others away, and jumpTo / seek
+ * move around inside it by label or line number.
+ *
+ * Scenes use the compiled form instead (loadGraph, see DialogueGraph), which carries speakers,
+ * choices and jumps; the line API stays for reading plain text files.
  */
 
 public class DialogueManager {
-    private final List<String> lines = new ArrayList<>();
+    private final Map<String, DialogueSource> scripts = new HashMap<>();
+    private final Map<String, DialogueGraph> graphs = new HashMap<>();
+    private DialogueSource current = null;
     private int index = 0;
     private static DialogueManager instance = null;	// keeps track of Singleton instance
 
@@ -26,41 +32,101 @@ public class DialogueManager {
 		return instance;
 	}	
 
+    /** Make filePath the current script (opening it the first time) and start from its first line. */
     public boolean loadFromFile(String filePath) {
-        lines.clear();
+        DialogueSource source = open(filePath);
+        if (source == null) return false;
+        current = source;
         index = 0;
-        File f = new File(filePath);
-        if (!f.exists()) {
+        System.out.println("Dialogue loaded.");
+        return true;
+    }
+
+    /** Open a script without switching to it (e.g. to have the next chapter ready). Null on failure. */
+    public DialogueSource open(String filePath) {
+        DialogueSource source = scripts.get(filePath);
+        if (source != null) return source;
+
+        try {
+            source = DialogueSource.open(filePath);
+        } catch (java.nio.file.NoSuchFileException | java.io.FileNotFoundException e) {
             System.out.println("Dialogue file not found: " + filePath);
-            return false;
-        }
-        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-            String line;
-            System.out.println("Dialogue loaded.");
-            while ((line = br.readLine()) != null) {
-                lines.add(line);
-            }
-            return true;
+            return null;
         } catch (Exception e) {
             System.out.println("Error reading dialogue file: " + e.getMessage());
-            return false;
+            return null;
         }
+        scripts.put(filePath, source);
+        return source;
+    }
+
+    /** The compiled graph for a script, loaded once and kept. Null on failure. */
+    public DialogueGraph loadGraph(String filePath) {
+        DialogueGraph graph = graphs.get(filePath);
+        if (graph != null) return graph;
+
+        // Loaded in the background by AssetLoader if this script was in the manifest
+        graph = AssetLoader.getInstance().awaitDialogue(filePath);
+        if (graph == null) {
+            try {
+                graph = DialogueGraph.load(filePath);
+            } catch (java.io.FileNotFoundException e) {
+                System.out.println("Dialogue file not found: " + filePath);
+                return null;
+            } catch (Exception e) {
+                System.out.println("Error reading dialogue file: " + e.getMessage());
+                return null;
+            }
+        }
+        graphs.put(filePath, graph);
+        return graph;
+    }
+
+    /** Forget a script opened earlier. */
+    public void close(String filePath) {
+        graphs.remove(filePath);
+        DialogueSource source = scripts.remove(filePath);
+        if (source != null && source == current) {
+            current = null;
+            index = 0;
+        }
+    }
+
+    public DialogueSource getCurrent() {
+        return current;
     }
 
     /** Returns true if there are more lines to read. */
     public boolean hasNext() {
-        return index < lines.size();
+        return current != null && index < current.lineCount();
     }
 
     /** Returns the next line (or null if none left). */
     public String nextLine() {
         if (!hasNext()) return null;
-        String s = lines.get(index);
+        String s = current.line(index);
         
         index++;
         return s;
     }
 
+    /** Continue reading from the line after "@label". Returns false if the label doesn't exist. */
+    public boolean jumpTo(String label) {
+        int line = (current == null) ? -1 : current.labelLine(label);
+        if (line < 0) return false;
+        index = line;
+        return true;
+    }
+
+    /** Continue reading from the given line number (0-based, label lines not counted). */
+    public void seek(int line) {
+        index = Math.max(0, line);
+    }
+
+    public int getLineIndex() {
+        return index;
+    }
+
     /** Reset reading to the start. */
     public void reset() {
         index = 0;
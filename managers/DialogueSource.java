@@ -0,0 +1,198 @@
+package managers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DialogueSource: random-access view of one dialogue script.
+ *
+ * The file is memory-mapped (or served straight from the packed AssetArchive) and described by a
+ * compact index: the byte offset where each line starts, plus the labels. Lines are only decoded
+ * into Strings when asked for, so opening a script of tens of thousands of lines costs a scan of
+ * its bytes (or less, with a saved index) and memory for one int per line.
+ *
+ * Script format: one dialogue line per text line, as before. A line starting with '@' is a label
+ * ("@chapter2") rather than dialogue; it names the line that follows it and is skipped when reading.
+ *
+ * Indexes are saved under getIndexCacheDir() and reused while the script's size and modification
+ * time are unchanged.
+ */
+public class DialogueSource {
+    private static final int INDEX_MAGIC = 0x44494458;    // "DIDX"
+    private static final int INDEX_VERSION = 1;
+
+    private static File indexCacheDir = new File("cache/dialogue");
+
+    private final String path;
+    private final ByteBuffer data;           // whole script, read-only
+    private final IntBuffer lineStarts;      // byte offset of each dialogue line (heap, or mapped from the index)
+    private final Map<String, Integer> labels;
+
+    private DialogueSource(String path, ByteBuffer data, IntBuffer lineStarts, Map<String, Integer> labels) {
+        this.path = path;
+        this.data = data;
+        this.lineStarts = lineStarts;
+        this.labels = labels;
+    }
+
+    /** Where saved indexes go (null disables saving them). */
+    public static void setIndexCacheDir(File dir) {
+        indexCacheDir = dir;
+    }
+
+    public static File getIndexCacheDir() {
+        return indexCacheDir;
+    }
+
+    /** Open a script from the packed archive if it's there, otherwise map the loose file. */
+    public static DialogueSource open(String path) throws IOException {
+        AssetArchive archive = AssetArchive.getDefault();
+        ByteBuffer packed = (archive != null) ? archive.slice(path) : null;
+        if (packed != null) {
+            return build(path, packed);     // archive is read-only: index it in memory
+        }
+
+        File f = new File(path);
+        ByteBuffer data;
+        try (FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            data = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        DialogueSource cached = loadIndex(path, data, f);
+        if (cached != null) return cached;
+
+        DialogueSource source = build(path, data);
+        source.saveIndex(f);
+        return source;
+    }
+
+    /** One pass over the bytes: record where each line starts and pick out the label lines. */
+    private static DialogueSource build(String path, ByteBuffer data) {
+        int[] starts = new int[256];
+        int count = 0;
+        Map<String, Integer> labels = new HashMap<>();
+        int limit = data.limit();
+        int pos = 0;
+        while (pos < limit) {
+            int end = pos;
+            while (end < limit && data.get(end) != '\n') end++;
+            if (data.get(pos) == '@') {
+                labels.put(decode(data, pos + 1, end).trim(), count);
+            } else {
+                if (count == starts.length) starts = Arrays.copyOf(starts, count * 2);
+                starts[count++] = pos;
+            }
+            pos = end + 1;
+        }
+        return new DialogueSource(path, data, IntBuffer.wrap(starts, 0, count).slice(), labels);
+    }
+
+    private static String decode(ByteBuffer data, int start, int end) {
+        if (end > start && data.get(end - 1) == '\r') end--;
+        byte[] bytes = new byte[end - start];
+        data.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ---------------- Index cache ----------------
+
+    private static File indexFileFor(String path) {
+        if (indexCacheDir == null) return null;
+        String name = AssetArchive.normalize(path).replace('/', '_') + ".idx";
+        return new File(indexCacheDir, name);
+    }
+
+    // Index file: int magic, int version, long scriptLength, long scriptModified, int lineCount,
+    // int labelCount, then lineCount ints (line starts), then per label: short length, UTF-8, int line.
+    private static final int INDEX_HEADER = 32;
+
+    private static DialogueSource loadIndex(String path, ByteBuffer data, File script) {
+        File idx = indexFileFor(path);
+        if (idx == null || !idx.isFile()) return null;
+        try (FileChannel ch = FileChannel.open(idx.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (b.limit() < INDEX_HEADER || b.getInt(0) != INDEX_MAGIC || b.getInt(4) != INDEX_VERSION) return null;
+            if (b.getLong(8) != script.length() || b.getLong(16) != script.lastModified()) return null;   // stale
+            int count = b.getInt(24);
+            int labelCount = b.getInt(28);
+            // the line table is used straight from the mapped index, no copy
+            IntBuffer starts = b.slice(INDEX_HEADER, count * 4).asIntBuffer();
+            b.position(INDEX_HEADER + count * 4);
+            Map<String, Integer> labels = new HashMap<>();
+            for (int i = 0; i < labelCount; i++) {
+                byte[] name = new byte[b.getShort() & 0xffff];
+                b.get(name);
+                labels.put(new String(name, StandardCharsets.UTF_8), b.getInt());
+            }
+            return new DialogueSource(path, data, starts, labels);
+        } catch (IOException | RuntimeException e) {
+            return null;    // unreadable cache: just rebuild it
+        }
+    }
+
+    private void saveIndex(File script) {
+        File idx = indexFileFor(path);
+        if (idx == null) return;
+        File dir = idx.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) return;
+
+        int count = lineStarts.limit();
+        int labelBytes = 0;
+        for (String label : labels.keySet()) labelBytes += 2 + label.getBytes(StandardCharsets.UTF_8).length + 4;
+        ByteBuffer b = ByteBuffer.allocate(INDEX_HEADER + count * 4 + labelBytes);
+        b.putInt(INDEX_MAGIC).putInt(INDEX_VERSION).putLong(script.length()).putLong(script.lastModified())
+         .putInt(count).putInt(labels.size());
+        for (int i = 0; i < count; i++) b.putInt(lineStarts.get(i));
+        for (Map.Entry<String, Integer> e : labels.entrySet()) {
+            byte[] name = e.getKey().getBytes(StandardCharsets.UTF_8);
+            b.putShort((short) name.length).put(name).putInt(e.getValue());
+        }
+        b.flip();
+        try (FileChannel ch = FileChannel.open(idx.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (b.hasRemaining()) ch.write(b);
+        } catch (IOException e) {
+            System.out.println("DialogueSource: could not save index for " + path + ": " + e.getMessage());
+        }
+    }
+
+    // ---------------- Access ----------------
+
+    public String getPath() {
+        return path;
+    }
+
+    /** Number of dialogue lines (label lines not counted). */
+    public int lineCount() {
+        return lineStarts.limit();
+    }
+
+    /** Decode line i (0-based). */
+    public String line(int i) {
+        if (i < 0 || i >= lineStarts.limit()) return null;
+        int start = lineStarts.get(i);
+        int limit = data.limit();
+        int end = start;
+        while (end < limit && data.get(end) != '\n') end++;
+        return decode(data, start, end);
+    }
+
+    /** Line number a label points at, or -1 if there is no such label. */
+    public int labelLine(String label) {
+        Integer line = labels.get(label);
+        return (line == null) ? -1 : line;
+    }
+
+    public List<String> labels() {
+        return new ArrayList<>(labels.keySet());
+    }
+}
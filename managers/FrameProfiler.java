@@ -0,0 +1,166 @@
+package managers;
+
+import java.util.Arrays;
+
+/**
+ * FrameProfiler: measures every frame in nanoseconds, split into phases.
+ *
+ * Usage from the loop (all on the loop thread):
+ *   profiler.begin(FrameProfiler.UPDATE);  ...work...  profiler.end(FrameProfiler.UPDATE);
+ *   ...
+ *   profiler.endFrame();   // once, after the frame has been presented
+ *
+ * The first begin() of a frame opens it. Phases that run several times per frame (e.g. catch-up
+ * updates) are summed. History lives in preallocated ring buffers, and stats are computed into
+ * preallocated scratch arrays, so profiling never allocates while the game runs.
+ */
+public class FrameProfiler {
+    private static FrameProfiler instance = null;
+
+    public static final int UPDATE = 0;
+    public static final int INPUT = 1;
+    public static final int ENTITY_DRAW = 2;
+    public static final int SCENE_DRAW = 3;
+    public static final int BLIT = 4;
+    public static final int POST_FX = 5;
+    public static final int PHASE_COUNT = 6;
+
+    private static final String[] PHASE_NAMES = { "update", "input", "entities", "scenes", "blit", "post-fx" };
+
+    public static final int CAPACITY = 240;          // frames of history (~4 seconds at 60 FPS)
+    public static final int HISTOGRAM_BUCKETS = 34;  // 1ms buckets; the last one is "33ms and over"
+
+    private final long[] frameHistory = new long[CAPACITY];
+    private final long[][] phaseHistory = new long[PHASE_COUNT][CAPACITY];
+    private final long[] phaseTotals = new long[PHASE_COUNT];
+    private final long[] phaseStarts = new long[PHASE_COUNT];
+    private int head = 0;                             // next slot to write
+    private int count = 0;                            // number of valid frames in the ring
+
+    private boolean frameOpen = false;
+    private long frameStart = 0L;
+    private volatile boolean enabled = true;
+
+    // Stats computed by computeStats(); scratch is reused between calls
+    private final long[] sortScratch = new long[CAPACITY];
+    private final long[] phaseAverages = new long[PHASE_COUNT];
+    private final int[] histogram = new int[HISTOGRAM_BUCKETS];
+    private long currentNs, averageNs, p95Ns, p99Ns, maxNs;
+
+    public FrameProfiler() { }
+
+    public static FrameProfiler getInstance() {
+        if (instance == null) instance = new FrameProfiler();
+        return instance;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Mark the start of a phase. Opens the frame if this is the first phase since endFrame(). */
+    public void begin(int phase) {
+        if (!enabled) return;
+        long now = System.nanoTime();
+        if (!frameOpen) {
+            frameOpen = true;
+            frameStart = now;
+        }
+        phaseStarts[phase] = now;
+    }
+
+    /** Mark the end of a phase; the elapsed time is added to this frame's total for that phase. */
+    public void end(int phase) {
+        if (!enabled) return;
+        phaseTotals[phase] += System.nanoTime() - phaseStarts[phase];
+    }
+
+    /** Close the frame and record it in the ring buffer. */
+    public void endFrame() {
+        if (!enabled || !frameOpen) return;
+        frameHistory[head] = System.nanoTime() - frameStart;
+        for (int p = 0; p < PHASE_COUNT; p++) {
+            phaseHistory[p][head] = phaseTotals[p];
+            phaseTotals[p] = 0L;
+        }
+        head = (head + 1) % CAPACITY;
+        if (count < CAPACITY) count++;
+        frameOpen = false;
+    }
+
+    /** Recompute current/average/p95/p99/max, per-phase averages and the histogram. */
+    public void computeStats() {
+        if (count == 0) return;
+        long sum = 0L;
+        Arrays.fill(phaseAverages, 0L);
+        Arrays.fill(histogram, 0);
+        for (int i = 0; i < count; i++) {
+            long t = frameHistory[i];
+            sortScratch[i] = t;
+            sum += t;
+            int bucket = (int) Math.min(HISTOGRAM_BUCKETS - 1, t / 1_000_000L);
+            histogram[bucket]++;
+            for (int p = 0; p < PHASE_COUNT; p++) {
+                phaseAverages[p] += phaseHistory[p][i];
+            }
+        }
+        for (int p = 0; p < PHASE_COUNT; p++) {
+            phaseAverages[p] /= count;
+        }
+        Arrays.sort(sortScratch, 0, count);
+        currentNs = getFrameNs(0);
+        averageNs = sum / count;
+        p95Ns = sortScratch[Math.min(count - 1, (int) (count * 0.95))];
+        p99Ns = sortScratch[Math.min(count - 1, (int) (count * 0.99))];
+        maxNs = sortScratch[count - 1];
+    }
+
+    /** Number of recorded frames (up to CAPACITY). */
+    public int getFrameCount() {
+        return count;
+    }
+
+    /** Total time of a recorded frame; age 0 is the most recent frame. */
+    public long getFrameNs(int age) {
+        return frameHistory[(head - 1 - age + CAPACITY * 2) % CAPACITY];
+    }
+
+    /** Time spent in a phase during a recorded frame; age 0 is the most recent frame. */
+    public long getPhaseNs(int phase, int age) {
+        return phaseHistory[phase][(head - 1 - age + CAPACITY * 2) % CAPACITY];
+    }
+
+    public static String getPhaseName(int phase) {
+        return PHASE_NAMES[phase];
+    }
+
+    public long getCurrentNs() { return currentNs; }
+    public long getAverageNs() { return averageNs; }
+    public long getP95Ns() { return p95Ns; }
+    public long getP99Ns() { return p99Ns; }
+    public long getMaxNs() { return maxNs; }
+
+    /** Average time per phase over the recorded history (valid after computeStats()). */
+    public long getPhaseAverageNs(int phase) {
+        return phaseAverages[phase];
+    }
+
+    /** Frame count in 1ms bucket i (valid after computeStats()). */
+    public int getHistogramBucket(int i) {
+        return histogram[i];
+    }
+
+    /** Forget all recorded frames. */
+    public void reset() {
+        Arrays.fill(frameHistory, 0L);
+        for (long[] h : phaseHistory) Arrays.fill(h, 0L);
+        Arrays.fill(phaseTotals, 0L);
+        head = 0;
+        count = 0;
+        frameOpen = false;
+    }
+}
@@ -0,0 +1,93 @@
+package managers;
+
+/**
+ * GameClock: the one place timers read the current time from.
+ * By default it is the wall clock. In virtual mode time only moves when advance(...) is called,
+ * which lets headless runs step the game faster (or slower) than real time while logo,
+ * transition and animation timers still behave as if that much time had passed.
+ *
+ * On top of that it keeps a frame clock: the game loop calls tick(stepNanos) once per update, and
+ * everything that should move with the game (animations) reads getGameNanos() instead of the
+ * time source. Game time only advances in tick(), so all readers in a frame see the same value,
+ * and setPaused(true) freezes it for everyone at once.
+ */
+public class GameClock {
+    private static GameClock instance = null;
+
+    private volatile boolean virtual = false;
+    private volatile long virtualNanos = 0L;
+
+    // Frame clock, written once per update by the loop thread
+    private volatile boolean paused = false;
+    private volatile long gameNanos = 0L;
+    private volatile long frameNanos = 0L;
+    private volatile long frameCount = 0L;
+
+    public GameClock() { }
+
+    public static GameClock getInstance() {
+        if (instance == null) instance = new GameClock();
+        return instance;
+    }
+
+    /** Switch between wall-clock time (false) and virtual time driven by advance() (true). */
+    public void setVirtual(boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /** Move virtual time forward. Ignored in wall-clock mode. */
+    public void advance(long nanos) {
+        if (virtual && nanos > 0) virtualNanos += nanos;
+    }
+
+    /** Monotonic time in nanoseconds (System.nanoTime() in wall-clock mode). */
+    public long nanoTime() {
+        return virtual ? virtualNanos : System.nanoTime();
+    }
+
+    /** Time in milliseconds (System.currentTimeMillis() in wall-clock mode). */
+    public long currentTimeMillis() {
+        return virtual ? virtualNanos / 1_000_000L : System.currentTimeMillis();
+    }
+
+    /**
+     * Advance the frame clock by one update of stepNanos (game time stands still while paused).
+     * Called once per update by GamePanel.tick(); pass 0 to hold game time for this update only.
+     */
+    public void tick(long stepNanos) {
+        frameNanos = nanoTime();
+        if (!paused && stepNanos > 0) gameNanos += stepNanos;
+        frameCount++;
+    }
+
+    /** Game time in nanoseconds: the sum of all unpaused ticks. Constant within a frame. */
+    public long getGameNanos() {
+        return gameNanos;
+    }
+
+    public long getGameTimeMillis() {
+        return gameNanos / 1_000_000L;
+    }
+
+    /** Time source reading taken at the last tick (keeps moving while game time is paused). */
+    public long getFrameNanos() {
+        return frameNanos;
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /** Freeze (true) or resume (false) game time, and with it every animation. */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+}
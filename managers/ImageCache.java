@@ -0,0 +1,199 @@
+package managers;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * ImageCache: keyed, memory-bounded image cache used by ImageManager.getCachedImage().
+ *
+ * - Every image is charged width x height x bytes-per-pixel against a byte budget.
+ * - When over budget, the least recently used images are evicted. Evicted images drop into an
+ *   optional soft-reference tier, so they come back for free if the GC hasn't needed the memory.
+ * - Loading is single-flight: concurrent requests for the same key wait for one decode.
+ * - Keys that failed to load are remembered (the most recent MAX_MISSING of them), so a missing
+ *   file doesn't hit the disk every frame.
+ * - Hit / miss / eviction counters for tuning the budget; lookups of known-missing keys are counted
+ *   on their own, not as hits.
+ *
+ * Cached images are shared: treat them as read-only (copy first if you need to modify pixels).
+ */
+public class ImageCache {
+    /** How many failed keys are remembered; the oldest is forgotten (and retried) past this. */
+    public static final int MAX_MISSING = 256;
+
+    private final Function<String, BufferedImage> loader;
+    private final LinkedHashMap<String, BufferedImage> lru = new LinkedHashMap<>(64, 0.75f, true);
+    private final HashMap<String, SoftReference<BufferedImage>> softTier = new HashMap<>();
+    private final LinkedHashSet<String> missing = new LinkedHashSet<>();
+    private final ConcurrentHashMap<String, CompletableFuture<BufferedImage>> inFlight = new ConcurrentHashMap<>();
+
+    private long budgetBytes;
+    private long usedBytes = 0L;
+    private boolean softTierEnabled = true;
+
+    private long hits = 0L;
+    private long softHits = 0L;
+    private long misses = 0L;
+    private long missingHits = 0L;
+    private long evictions = 0L;
+
+    public ImageCache(long budgetBytes, Function<String, BufferedImage> loader) {
+        this.budgetBytes = budgetBytes;
+        this.loader = loader;
+    }
+
+    /** Memory an image occupies: width x height x bytes per pixel (as stored in its raster). */
+    public static long sizeOf(BufferedImage img) {
+        DataBuffer db = img.getRaster().getDataBuffer();
+        return (long) db.getSize() * db.getNumBanks() * DataBuffer.getDataTypeSize(db.getDataType()) / 8;
+    }
+
+    /** Return the image for key, loading it (once, even under concurrency) if needed. May return null. */
+    public BufferedImage get(String key) {
+        synchronized (this) {
+            BufferedImage img = cached(key);
+            if (img != null) {
+                hits++;
+                return img;
+            }
+            if (missing.contains(key)) {
+                missingHits++;
+                return null;
+            }
+        }
+
+        CompletableFuture<BufferedImage> mine = new CompletableFuture<>();
+        CompletableFuture<BufferedImage> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            synchronized (this) {
+                misses++;
+            }
+            return existing.join();   // someone else is decoding this key; share their result
+        }
+        try {
+            // Another load may have finished between the check above and claiming the key: look again
+            synchronized (this) {
+                BufferedImage img = cached(key);
+                if (img != null || missing.contains(key)) {
+                    if (img != null) hits++;
+                    else missingHits++;
+                    mine.complete(img);
+                    return img;
+                }
+                misses++;
+            }
+
+            BufferedImage img = loader.apply(key);
+            synchronized (this) {
+                if (img == null) addMissing(key);
+                else put(key, img);
+            }
+            mine.complete(img);
+            return img;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // LRU or soft-tier image for key (promoting a soft hit back into the LRU); caller holds the lock
+    private BufferedImage cached(String key) {
+        BufferedImage img = lru.get(key);
+        if (img != null) return img;
+        SoftReference<BufferedImage> ref = softTier.remove(key);
+        img = (ref == null) ? null : ref.get();
+        if (img != null) {
+            softHits++;
+            put(key, img);
+        }
+        return img;
+    }
+
+    private void addMissing(String key) {
+        missing.add(key);
+        if (missing.size() > MAX_MISSING) {
+            Iterator<String> it = missing.iterator();
+            it.next();
+            it.remove();
+        }
+    }
+
+    /** Add an image that was produced elsewhere (e.g. generated at runtime). */
+    public synchronized void put(String key, BufferedImage img) {
+        BufferedImage old = lru.remove(key);
+        if (old != null) usedBytes -= sizeOf(old);
+        missing.remove(key);
+
+        long size = sizeOf(img);
+        if (size > budgetBytes) {
+            // Larger than the whole budget: keep it only softly
+            if (softTierEnabled) softTier.put(key, new SoftReference<>(img));
+            return;
+        }
+        lru.put(key, img);
+        usedBytes += size;
+        evictToBudget();
+    }
+
+    private void evictToBudget() {
+        Iterator<Map.Entry<String, BufferedImage>> it = lru.entrySet().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            Map.Entry<String, BufferedImage> eldest = it.next();
+            it.remove();
+            usedBytes -= sizeOf(eldest.getValue());
+            evictions++;
+            if (softTierEnabled) softTier.put(eldest.getKey(), new SoftReference<>(eldest.getValue()));
+        }
+    }
+
+    /** Forget one key (e.g. the file changed on disk). */
+    public synchronized void invalidate(String key) {
+        BufferedImage old = lru.remove(key);
+        if (old != null) usedBytes -= sizeOf(old);
+        softTier.remove(key);
+        missing.remove(key);
+    }
+
+    public synchronized void clear() {
+        lru.clear();
+        softTier.clear();
+        missing.clear();
+        usedBytes = 0L;
+    }
+
+    public synchronized void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = Math.max(0L, budgetBytes);
+        evictToBudget();
+    }
+
+    public synchronized void setSoftTierEnabled(boolean enabled) {
+        softTierEnabled = enabled;
+        if (!enabled) softTier.clear();
+    }
+
+    public synchronized long getBudgetBytes() { return budgetBytes; }
+    public synchronized long getUsedBytes() { return usedBytes; }
+    public synchronized int getImageCount() { return lru.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getSoftHits() { return softHits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getMissingHits() { return missingHits; }
+    public synchronized long getEvictions() { return evictions; }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ImageCache[%d images, %.1f/%.1f MB, hits=%d (soft %d), misses=%d, missing=%d, evictions=%d]",
+                lru.size(), usedBytes / 1048576.0, budgetBytes / 1048576.0, hits, softHits, misses, missingHits, evictions);
+    }
+}
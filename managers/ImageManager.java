@@ -1,10 +1,15 @@
 package managers;
 
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
 import java.awt.Image;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 
@@ -13,15 +18,50 @@ The ImageManager class manages the loading and processing of images.
 */
 
 public class ImageManager {
+	// Decoded images shared by getCachedImage(); 64 MB by default (see getCache().setBudgetBytes)
+	private static final ImageCache cache = new ImageCache(64L * 1024 * 1024, ImageManager::loadBufferedImage);
+
+	// load-time conversion to the screen's format (see optimizeImage)
+	private static volatile boolean optimizeOnLoad = true;
+	private static volatile boolean accelerate = true;
+	private static final List<String> conversions = new ArrayList<>();
+	private static int convertedCount = 0;
+	private static int keptCount = 0;
+
    	public ImageManager () {
 
 	}
 
+	// cached load: decodes the file once, then serves it from memory (treat the result as read-only)
+
+	public static BufferedImage getCachedImage(String fileName) {
+		return cache.get(fileName);
+	}
+
+	public static ImageCache getCache() {
+		return cache;
+	}
+
 	public static Image loadImage (String fileName) {
 		return new ImageIcon(fileName).getImage();
 	}
 
+	// load an image ready for drawing: decoded, then converted to the screen's format
+	// (turn off with setOptimizeOnLoad(false), or use loadRawImage for the decoder's own format)
+
 	public static BufferedImage loadBufferedImage(String filename) {
+		// shipped builds: pre-decoded pixels from the packed archive; otherwise the loose file
+		AssetArchive archive = AssetArchive.getDefault();
+		BufferedImage bi = (archive != null) ? archive.getImage(filename) : null;
+		if (bi == null)
+			bi = loadRawImage(filename);
+		return optimizeOnLoad ? optimizeImage(bi, filename) : bi;
+	}
+
+
+	// load an image exactly as ImageIO decodes it (may be 3-byte BGR, indexed, ...)
+
+	public static BufferedImage loadRawImage(String filename) {
 		BufferedImage bi = null;
 
 		File file = new File (filename);
@@ -35,7 +75,97 @@ public class ImageManager {
 	}
 
 
-  	// make a copy of the BufferedImage src
+	// return src in the screen's native format (same pixels and transparency), so Java2D can blit
+	// it with its accelerated loops instead of converting it every draw. src is returned untouched
+	// if it already matches. name is only used for the conversion report.
+
+	public static BufferedImage optimizeImage(BufferedImage src, String name) {
+		if (src == null)
+			return null;
+
+		int transparency = src.getColorModel().getTransparency();
+		BufferedImage result = src;
+		if (!isCompatible(src, transparency)) {
+			result = createCompatibleImage(src.getWidth(), src.getHeight(), transparency);
+			Graphics2D g2d = result.createGraphics();
+			g2d.drawImage(src, 0, 0, null);
+			g2d.dispose();
+		}
+		if (accelerate)
+			result.setAccelerationPriority(1.0f);
+
+		synchronized (conversions) {
+			if (result != src) {
+				convertedCount++;
+				conversions.add(name + ": " + typeName(src.getType()) + " -> " + typeName(result.getType()));
+				if (conversions.size() > 256)
+					conversions.remove(0);
+			}
+			else {
+				keptCount++;
+			}
+		}
+		return result;
+	}
+
+
+	private static boolean isCompatible(BufferedImage img, int transparency) {
+		if (GraphicsEnvironment.isHeadless()) {
+			// no screen to match: any int-packed layout is already on the fast software loops
+			int type = img.getType();
+			return type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB
+					|| type == BufferedImage.TYPE_INT_ARGB_PRE;
+		}
+		GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+				.getDefaultConfiguration();
+		return img.getColorModel().equals(gc.getColorModel(transparency));
+	}
+
+
+	private static String typeName(int type) {
+		switch (type) {
+			case BufferedImage.TYPE_INT_RGB: return "INT_RGB";
+			case BufferedImage.TYPE_INT_ARGB: return "INT_ARGB";
+			case BufferedImage.TYPE_INT_ARGB_PRE: return "INT_ARGB_PRE";
+			case BufferedImage.TYPE_INT_BGR: return "INT_BGR";
+			case BufferedImage.TYPE_3BYTE_BGR: return "3BYTE_BGR";
+			case BufferedImage.TYPE_4BYTE_ABGR: return "4BYTE_ABGR";
+			case BufferedImage.TYPE_4BYTE_ABGR_PRE: return "4BYTE_ABGR_PRE";
+			case BufferedImage.TYPE_BYTE_GRAY: return "BYTE_GRAY";
+			case BufferedImage.TYPE_BYTE_INDEXED: return "BYTE_INDEXED";
+			case BufferedImage.TYPE_BYTE_BINARY: return "BYTE_BINARY";
+			default: return "CUSTOM(" + type + ")";
+		}
+	}
+
+
+	public static void setOptimizeOnLoad(boolean optimize) {
+		optimizeOnLoad = optimize;
+	}
+
+	// ask Java2D to keep optimized images in video memory (a hint; ignored where unsupported)
+
+	public static void setAccelerationPriority(boolean enabled) {
+		accelerate = enabled;
+	}
+
+
+	// which loaded images were converted, and from/to which format (most recent 256)
+
+	public static String getConversionReport() {
+		synchronized (conversions) {
+			StringBuilder sb = new StringBuilder();
+			sb.append("ImageManager: ").append(convertedCount).append(" converted, ")
+			  .append(keptCount).append(" already compatible\n");
+			for (String line : conversions) {
+				sb.append("  ").append(line).append('\n');
+			}
+			return sb.toString();
+		}
+	}
+
+
+  	// make a copy of the BufferedImage src (always TYPE_INT_ARGB, so effects can work on its pixels)
 
 	public static BufferedImage copyImage(BufferedImage src) {
 		if (src == null)
@@ -57,6 +187,16 @@ public class ImageManager {
     		return copy; 
 	  }
 
-}
 
+	// create an image in the screen's native format (fast to blit); plain ARGB/RGB when headless
 
+	public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+		if (GraphicsEnvironment.isHeadless()) {
+			int type = (transparency == Transparency.OPAQUE) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE;
+			return new BufferedImage(width, height, type);
+		}
+		return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+				.getDefaultConfiguration().createCompatibleImage(width, height, transparency);
+	}
+
+}
@@ -0,0 +1,75 @@
+package managers;
+
+/**
+ * InputEventQueue: fixed-size single-producer / single-consumer ring of key events.
+ *
+ * The AWT thread (producer) offers events; the game loop (consumer) drains them once per tick.
+ * Events are stored as primitives in preallocated arrays, so neither side allocates or locks:
+ * the producer publishes by advancing the volatile tail after writing a slot, the consumer frees
+ * slots by advancing the volatile head after reading them. When the ring is full new events are
+ * dropped (and counted) rather than overwriting ones the consumer hasn't seen.
+ */
+public class InputEventQueue {
+    public static final int KEY_PRESSED = 1;
+    public static final int KEY_RELEASED = 2;
+
+    /** Receives drained events; keep one instance around so draining doesn't allocate. */
+    public interface Consumer {
+        void accept(int type, int keyCode, long when);
+    }
+
+    private final int mask;
+    private final int[] events;     // type << 16 | keyCode
+    private final long[] times;     // KeyEvent.getWhen(), milliseconds
+    private volatile long head = 0; // next slot to read (written by the consumer only)
+    private volatile long tail = 0; // next slot to write (written by the producer only)
+    private volatile long dropped = 0;
+
+    /** capacity is rounded up to a power of two. */
+    public InputEventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;   // at least 2
+        mask = size - 1;
+        events = new int[size];
+        times = new long[size];
+    }
+
+    /** Producer side. Returns false (and counts a drop) if the consumer has fallen a full ring behind. */
+    public boolean offer(int type, int keyCode, long when) {
+        long t = tail;
+        if (t - head > mask) {
+            dropped++;      // only the producer writes this
+            return false;
+        }
+        int slot = (int) (t & mask);
+        events[slot] = (type << 16) | (keyCode & 0xFFFF);
+        times[slot] = when;
+        tail = t + 1;       // volatile write publishes the slot
+        return true;
+    }
+
+    /** Consumer side: hand every queued event to consumer in order. Returns how many there were. */
+    public int drain(Consumer consumer) {
+        long h = head;
+        long t = tail;      // volatile read: slots before t are fully written
+        for (long i = h; i < t; i++) {
+            int slot = (int) (i & mask);
+            int e = events[slot];
+            consumer.accept(e >>> 16, e & 0xFFFF, times[slot]);
+        }
+        head = t;           // volatile write hands the slots back to the producer
+        return (int) (t - h);
+    }
+
+    public int size() {
+        return (int) (tail - head);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /** Events dropped because the ring was full. */
+    public long getDropped() {
+        return dropped;
+    }
+}
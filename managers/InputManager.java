@@ -1,17 +1,33 @@
 package managers;
 
 import java.awt.event.*;
+import java.util.Arrays;
 import main.GamePanel;
 
+/**
+ * InputManager: keyboard input for the game loop plus the window's button commands.
+ *
+ * KeyListener callbacks (AWT thread) only append timestamped events to an InputEventQueue. Once per
+ * tick processInputThisFrame drains the queue into the next of two InputSnapshots, publishes it and
+ * acts on it, so the loop can run on any thread and a press that starts and ends within one tick
+ * is still seen. Nothing here allocates per event or per tick.
+ */
 public class InputManager implements KeyListener {
 
     private static InputManager instance;
 
     private GamePanel gamePanel;
 
-    // Tracks key states
-    private final boolean[] keysDown = new boolean[256];
-    private final boolean[] keysPressedThisFrame = new boolean[256];
+    // AWT thread -> game loop
+    private final InputEventQueue events = new InputEventQueue(1024);
+    private final GameClock clock = GameClock.getInstance();
+
+    // Double-buffered per-tick state: fill back, then publish it as current
+    private final InputSnapshot[] snapshots = { new InputSnapshot(), new InputSnapshot() };
+    private volatile InputSnapshot current = snapshots[0];
+    private InputSnapshot building;
+    private final InputEventQueue.Consumer applyEvent = this::apply;
+    private long tick = 0;
 
     // Output actions each frame
     private int actionCode = 0;
@@ -27,45 +43,97 @@ public class InputManager implements KeyListener {
 
     @Override
     public void keyPressed(KeyEvent e) {
-        int k = e.getKeyCode();
-        if (k < 0 || k >= 256) return;
-
-        if (!keysDown[k]) {
-            keysPressedThisFrame[k] = true; // one-shot detection
-        }
-
-        keysDown[k] = true;
+        postKey(InputEventQueue.KEY_PRESSED, e.getKeyCode(), e.getWhen());
     }
 
     @Override
     public void keyReleased(KeyEvent e) {
-        int k = e.getKeyCode();
-        if (k < 0 || k >= 256) return;
-        keysDown[k] = false;
+        postKey(InputEventQueue.KEY_RELEASED, e.getKeyCode(), e.getWhen());
     }
 
     @Override
     public void keyTyped(KeyEvent e) {}
+
+    /** Queue a key event without a KeyEvent (headless runs, replays). when is in ms, like getWhen(). */
+    public void postKey(int type, int keyCode, long when) {
+        if (keyCode < 0 || keyCode >= InputSnapshot.KEY_COUNT) return;
+        events.offer(type, keyCode, when);
+    }
+
+    /** The snapshot built by the latest tick. */
+    public InputSnapshot getSnapshot() {
+        return current;
+    }
+
+    public InputEventQueue getEventQueue() {
+        return events;
+    }
+
+    // Drain this tick's events into the back snapshot and publish it
+    private InputSnapshot buildSnapshot() {
+        InputSnapshot prev = current;
+        InputSnapshot next = (prev == snapshots[0]) ? snapshots[1] : snapshots[0];
+        System.arraycopy(prev.down, 0, next.down, 0, InputSnapshot.KEY_COUNT);
+        System.arraycopy(prev.pressTime, 0, next.pressTime, 0, InputSnapshot.KEY_COUNT);
+        Arrays.fill(next.pressed, false);
+        Arrays.fill(next.released, false);
+
+        building = next;
+        next.eventCount = events.drain(applyEvent);
+        building = null;
+        next.tick = ++tick;
+        next.time = clock.currentTimeMillis();
+        current = next;
+        return next;
+    }
+
+    private void apply(int type, int key, long when) {
+        InputSnapshot s = building;
+        if (type == InputEventQueue.KEY_PRESSED) {
+            if (!s.down[key]) {         // key repeat sends more presses while held; only the first counts
+                s.pressed[key] = true;
+                s.pressTime[key] = when;
+            }
+            s.down[key] = true;
+        } else {
+            s.down[key] = false;
+            s.released[key] = true;
+        }
+    }
+
     // Main input logic run ONCE per frame from GameLoop
     public void processInputThisFrame() {
-        if (gamePanel == null && !gamePanel.isPaused) return;
+        InputSnapshot in = buildSnapshot();   // drain even without a panel so the queue never backs up
+        if (gamePanel == null) return;
+
+        // Debug overlays work in every state
+        if (in.wasPressed(KeyEvent.VK_F3)) {
+            gamePanel.toggleProfilerOverlay();
+        }
 
         // Check for dialogue advance
         
         if (gamePanel.sceneManager.isAnyActive()){
-            if (wasPressed(KeyEvent.VK_SPACE)) {
+            if (in.wasPressed(KeyEvent.VK_SPACE)) {
                 gamePanel.advanceDialogue();
                 System.out.println("InputManager: SPACE pressed to advance dialogue.");
-                clearPerFrameInputs();
                 return;
             }
+            // Number keys pick a dialogue option
+            for (int i = 0; i < 9; i++) {
+                if (in.wasPressed(KeyEvent.VK_1 + i)) {
+                    gamePanel.chooseDialogueOption(i);
+                    return;
+                }
+            }
 
         }else{
 
-            boolean up    = isDown(KeyEvent.VK_W) || isDown(KeyEvent.VK_UP);
-            boolean down  = isDown(KeyEvent.VK_S) || isDown(KeyEvent.VK_DOWN);
-            boolean left  = isDown(KeyEvent.VK_A) || isDown(KeyEvent.VK_LEFT);
-            boolean right = isDown(KeyEvent.VK_D) || isDown(KeyEvent.VK_RIGHT);
+            // wasDown: a tap shorter than one tick still moves the player for that tick
+            boolean up    = in.wasDown(KeyEvent.VK_W) || in.wasDown(KeyEvent.VK_UP);
+            boolean down  = in.wasDown(KeyEvent.VK_S) || in.wasDown(KeyEvent.VK_DOWN);
+            boolean left  = in.wasDown(KeyEvent.VK_A) || in.wasDown(KeyEvent.VK_LEFT);
+            boolean right = in.wasDown(KeyEvent.VK_D) || in.wasDown(KeyEvent.VK_RIGHT);
 
             actionCode = 0;
 
@@ -80,27 +148,10 @@ public class InputManager implements KeyListener {
             else if (down) actionCode = 4;
 
             // One-shot action example (jump)
-            //jumpPressed = wasPressed(KeyEvent.VK_SPACE);
+            //jumpPressed = in.wasPressed(KeyEvent.VK_SPACE);
 
             // Send actions to game panel
             gamePanel.receiveInput(actionCode);
-
-            // Reset one-shot keys
-            clearPerFrameInputs();
-        }
-    }
-
-    private boolean isDown(int key) {
-        return key >= 0 && key < 256 && keysDown[key];
-    }
-
-    private boolean wasPressed(int key) {
-        return key >= 0 && key < 256 && keysPressedThisFrame[key];
-    }
-
-    private void clearPerFrameInputs() {
-        for (int i = 0; i < keysPressedThisFrame.length; i++) {
-            keysPressedThisFrame[i] = false;
         }
     }
 
@@ -111,20 +162,21 @@ public class InputManager implements KeyListener {
             case "Start Game":
                 gamePanel.startGame();
                 break;
+            // Buttons fire on the EDT; scene / sound changes run on the game loop's thread
             case "Start Dialogue":
-                gamePanel.startDialogueByName("test");
+                gamePanel.runOnGameThread(() -> gamePanel.startDialogueByName("test"));
                 break;
             case "Next":
-                gamePanel.advanceDialogue();
+                gamePanel.runOnGameThread(gamePanel::advanceDialogue);
                 break;
             case "Show Logo":
-                gamePanel.triggerLogo();
+                gamePanel.runOnGameThread(gamePanel::triggerLogo);
                 break;
             case "Transition":
-                gamePanel.triggerTransition(2000);
+                gamePanel.runOnGameThread(() -> gamePanel.triggerTransition(2000));
                 break;
             case "Play Music":
-                gamePanel.playSound("ping", false);
+                gamePanel.runOnGameThread(() -> gamePanel.playSound("ping", false));
                 break;
             case "Exit":
                 System.exit(0);
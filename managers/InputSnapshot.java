@@ -0,0 +1,65 @@
+package managers;
+
+/**
+ * InputSnapshot: the keyboard state for one game tick, as built by InputManager from the events
+ * drained that tick. Read-only to everyone else; InputManager fills two of these in turn, so a
+ * snapshot stays valid until the tick after next.
+ *
+ * - isDown(key): held at the end of the tick
+ * - wasPressed(key) / wasReleased(key): went down / up during the tick
+ * - wasDown(key): held at any point during the tick, so a tap shorter than a tick still counts
+ * - getPressTime(key): KeyEvent.getWhen() of the press that started the current (or last) hold
+ */
+public final class InputSnapshot {
+    public static final int KEY_COUNT = 256;
+
+    final boolean[] down = new boolean[KEY_COUNT];
+    final boolean[] pressed = new boolean[KEY_COUNT];
+    final boolean[] released = new boolean[KEY_COUNT];
+    final long[] pressTime = new long[KEY_COUNT];
+    long tick;
+    long time;
+    int eventCount;
+
+    InputSnapshot() { }
+
+    public boolean isDown(int key) {
+        return key >= 0 && key < KEY_COUNT && down[key];
+    }
+
+    public boolean wasPressed(int key) {
+        return key >= 0 && key < KEY_COUNT && pressed[key];
+    }
+
+    public boolean wasReleased(int key) {
+        return key >= 0 && key < KEY_COUNT && released[key];
+    }
+
+    public boolean wasDown(int key) {
+        return isDown(key) || wasPressed(key);
+    }
+
+    public long getPressTime(int key) {
+        return (key >= 0 && key < KEY_COUNT) ? pressTime[key] : 0L;
+    }
+
+    /** How long key has been held as of this tick (ms), or 0 if it isn't down. */
+    public long getHeldMillis(int key) {
+        return isDown(key) ? Math.max(0L, time - pressTime[key]) : 0L;
+    }
+
+    /** Number of the tick this snapshot belongs to (counts processInputThisFrame calls). */
+    public long getTick() {
+        return tick;
+    }
+
+    /** Clock time (ms, same clock as the event timestamps) when the snapshot was built. */
+    public long getTime() {
+        return time;
+    }
+
+    /** Events drained into this snapshot. */
+    public int getEventCount() {
+        return eventCount;
+    }
+}
@@ -1,6 +1,7 @@
 package managers;
 
 import java.awt.image.BufferedImage;
+import java.util.concurrent.CopyOnWriteArrayList;
 // ImageManager is in the same package; no import needed
 
 /**
@@ -13,6 +14,9 @@ public class LogoManager {
     private BufferedImage logo = null;
     private boolean active = false;
     private long endTimeMs = 0L;
+    private final GameClock clock = GameClock.getInstance();   // wall clock, or virtual time when headless
+    // Told when the logo goes away (hide, reset, or timer expiry) so renderers can drop cached copies
+    private final CopyOnWriteArrayList<Runnable> releaseListeners = new CopyOnWriteArrayList<>();
 
     public LogoManager() { }
 
@@ -25,7 +29,9 @@ public class LogoManager {
      * Load a logo image from the given filesystem path. Returns true on success.
      */
     public boolean loadFromFile(String path) {
-        BufferedImage img = ImageManager.loadBufferedImage(path);
+        // Preloaded by AssetLoader when listed in the manifest (waits only for this image if still decoding)
+        BufferedImage img = AssetLoader.getInstance().awaitImage(path);
+        if (img == null) img = ImageManager.loadBufferedImage(path);
         if (img == null) {
             System.out.println("LogoManager: failed to load image: " + path);
             logo = null;
@@ -35,6 +41,18 @@ public class LogoManager {
         return true;
     }
 
+    public void addReleaseListener(Runnable listener) {
+        releaseListeners.addIfAbsent(listener);
+    }
+
+    public void removeReleaseListener(Runnable listener) {
+        releaseListeners.remove(listener);
+    }
+
+    private void fireRelease() {
+        for (Runnable r : releaseListeners) r.run();
+    }
+
     /** Show the currently loaded logo for the given duration in milliseconds. */
     public void show(long durationMs) {
         if (logo == null) return;
@@ -42,10 +60,10 @@ public class LogoManager {
             return;
         }
         active = true;
-        endTimeMs = System.currentTimeMillis() + Math.max(0, durationMs);
+        endTimeMs = clock.currentTimeMillis() + Math.max(0, durationMs);
         System.out.println("LogoManager: showing logo for " + durationMs + "ms");
 
-        if (System.currentTimeMillis() > endTimeMs) {
+        if (clock.currentTimeMillis() > endTimeMs) {
             reset();
         }
 
@@ -55,13 +73,15 @@ public class LogoManager {
     public void hide() {
         active = false;
         endTimeMs = 0L;
+        fireRelease();
     }
 
     /** Returns true if the logo should currently be displayed. This also updates the internal timer. */
     public boolean isActive() {
         if (!active) return false;
-        if (System.currentTimeMillis() > endTimeMs) {
+        if (clock.currentTimeMillis() > endTimeMs) {
             active = false;
+            fireRelease();
             return false;
         }
         return true;
@@ -76,6 +96,7 @@ public class LogoManager {
         logo = null;
         active = false;
         endTimeMs = 0L;
+        fireRelease();
     }
 }
 
@@ -0,0 +1,355 @@
+package managers;
+
+import java.util.concurrent.locks.LockSupport;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+
+/**
+ * MusicChannel: streams music tracks instead of decoding them whole.
+ *
+ * A background thread reads each track in small chunks from its AudioInputStream, converts them to
+ * the mixer's 16-bit stereo format and fills a fixed ring buffer (about 0.75 s). AudioMixer pulls
+ * from that ring on its audio thread, so a track costs the same few hundred KB whether it is
+ * ten seconds or ten minutes long, and starting it doesn't wait for a full decode. play() and
+ * crossfadeTo() only open the stream; the decoder thread is woken to fill the new ring, and the
+ * mixer holds a track (and its fade-in) until its first chunk is there.
+ *
+ * - play(path, loop, loopStartSeconds): looping jumps back to loopStartSeconds (not 0) at the end,
+ *   so an intro plays once and the body repeats.
+ * - crossfadeTo(path, fadeMs, ...): the old track fades out while the new one fades in.
+ * - stop(fadeMs) / setVolume(v).
+ */
+public class MusicChannel implements AudioMixer.Stream, Runnable {
+    private static final int RING_FRAMES = 32768;       // power of two, ~0.74 s at 44.1 kHz
+    private static final int CHUNK_FRAMES = 4096;       // source frames decoded per read
+    private static final int GAIN_SHIFT = 12;
+
+    /** One playing track: decoder state (background thread) plus a ring shared with the audio thread. */
+    private static final class Track {
+        final String path;
+        final boolean loop;
+        final long loopStartFrame;              // in source frames
+
+        AudioInputStream stream;
+        AudioFormat srcFormat;
+        final byte[] chunk;
+        final short[] ring = new short[RING_FRAMES * 2];
+        volatile long writePos = 0L;            // frames produced (decoder thread)
+        volatile long readPos = 0L;             // frames consumed (audio thread)
+        volatile boolean eof = false;
+        volatile boolean finished = false;
+        long framesSinceOpen = 0L;              // guards against looping a section with no audio in it
+
+        // linear resampler state: position of the next output frame in source frames,
+        // relative to the start of the current chunk (-1 is the last frame of the previous chunk)
+        double srcPos = 0.0;
+        double step = 1.0;
+        int prevL, prevR;
+
+        // gain ramp (guarded by the track's monitor)
+        float gain;
+        float fadeStep = 0f;
+        int fadeRemaining = 0;
+        boolean stopAfterFade = false;
+
+        Track(String path, boolean loop, long loopStartFrame, AudioInputStream stream, float startGain) {
+            this.path = path;
+            this.loop = loop;
+            this.loopStartFrame = loopStartFrame;
+            this.stream = stream;
+            this.srcFormat = stream.getFormat();
+            this.step = srcFormat.getSampleRate() / AudioMixer.SAMPLE_RATE;
+            this.chunk = new byte[CHUNK_FRAMES * srcFormat.getFrameSize()];
+            this.gain = startGain;
+        }
+
+        synchronized void fadeTo(float target, long ms, boolean stopAtEnd) {
+            int frames = (int) Math.max(1, ms * AudioMixer.SAMPLE_RATE / 1000);
+            fadeStep = (target - gain) / frames;
+            fadeRemaining = frames;
+            stopAfterFade = stopAtEnd;
+        }
+    }
+
+    private volatile Track current = null;
+    private volatile Track previous = null;     // fading out during a crossfade
+    private volatile float volume = 1f;
+    private volatile int underruns = 0;
+
+    private final AudioMixer mixer;
+    private Thread decoder;
+    private volatile boolean running = false;
+
+    public MusicChannel(AudioMixer mixer) {
+        this.mixer = mixer;
+    }
+
+    // ---------------- Control (any thread) ----------------
+
+    /** Start a track right away, replacing whatever is playing. Returns false if it can't be opened. */
+    public boolean play(String path, boolean loop, double loopStartSeconds) {
+        return crossfadeTo(path, 0, loop, loopStartSeconds);
+    }
+
+    /**
+     * Fade the current track out and the new one in over fadeMs. Returns false if the new track
+     * can't be opened (the current one keeps playing).
+     */
+    public synchronized boolean crossfadeTo(String path, long fadeMs, boolean loop, double loopStartSeconds) {
+        AudioInputStream stream = open(path);
+        if (stream == null) return false;
+        long loopStart = Math.max(0L, (long) (loopStartSeconds * stream.getFormat().getSampleRate()));
+        Track next = new Track(path, loop, loopStart, stream, fadeMs > 0 ? 0f : 1f);
+
+        Track old = current;
+        Track older = previous;
+        if (older != null) older.finished = true;        // a third track: drop the one already fading out
+        if (old != null) {
+            if (fadeMs > 0) old.fadeTo(0f, fadeMs, true);
+            else old.finished = true;
+        }
+        if (fadeMs > 0) next.fadeTo(1f, fadeMs, false);
+        previous = old;
+        current = next;
+
+        mixer.addStream(this);
+        startDecoder();
+        return true;
+    }
+
+    /** Fade out and stop the music (fadeMs 0 stops immediately). */
+    public synchronized void stop(long fadeMs) {
+        Track t = current;
+        if (t == null) return;
+        if (fadeMs > 0) t.fadeTo(0f, fadeMs, true);
+        else t.finished = true;
+    }
+
+    public void setVolume(float volume) {
+        this.volume = Math.max(0f, volume);
+    }
+
+    public float getVolume() {
+        return volume;
+    }
+
+    public boolean isPlaying() {
+        Track t = current;
+        return t != null && !t.finished;
+    }
+
+    public String getCurrentPath() {
+        Track t = current;
+        return (t != null && !t.finished) ? t.path : null;
+    }
+
+    /** Times the audio thread found the ring empty while the track was still playing. */
+    public int getUnderruns() {
+        return underruns;
+    }
+
+    // ---------------- Decoding (background thread) ----------------
+
+    private static AudioInputStream open(String path) {
+        try {
+            return AudioMixer.toPcm16(SoundManager.openStream(path));
+        } catch (Exception e) {
+            System.out.println("MusicChannel: cannot open " + path + ": " + e);
+            return null;
+        }
+    }
+
+    // Start the decoder thread, or wake it so a newly published track is filled straight away
+    private synchronized void startDecoder() {
+        if (running) {
+            if (decoder != null) LockSupport.unpark(decoder);
+            return;
+        }
+        running = true;
+        decoder = new Thread(this, "MusicDecoder");
+        decoder.setDaemon(true);
+        decoder.setPriority(Thread.NORM_PRIORITY + 1);
+        decoder.start();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            Track cur = current;
+            Track prev = previous;
+            if (cur != null) fill(cur);
+            if (prev != null) fill(prev);
+            if (cur != null && cur.finished) close(cur);
+            if (prev != null && prev.finished) {
+                close(prev);
+                synchronized (this) {
+                    if (previous == prev) previous = null;
+                }
+            }
+            if (current == null || current.finished) {
+                synchronized (this) {
+                    if (current == null || current.finished) {
+                        if (previous == null) {
+                            // nothing left to play: detach from the mixer and let the thread end
+                            current = null;
+                            mixer.removeStream(this);
+                            running = false;
+                            decoder = null;
+                            return;
+                        }
+                    }
+                }
+            }
+            LockSupport.parkNanos(5_000_000L);   // the ring holds ~0.7 s, so polling every 5 ms is plenty
+        }
+    }
+
+    private static void close(Track t) {
+        try {
+            if (t.stream != null) t.stream.close();
+        } catch (Exception ignored) {
+            // nothing useful to do
+        }
+        t.stream = null;
+    }
+
+    /** Decode chunks until the ring is nearly full or the track ends. */
+    private void fill(Track t) {
+        while (!t.eof && !t.finished && t.stream != null) {
+            long free = RING_FRAMES - (t.writePos - t.readPos);
+            // a chunk can expand by the resampling ratio; keep room for it
+            if (free < (long) Math.ceil(CHUNK_FRAMES / t.step) + 2) return;
+            int frameSize = t.srcFormat.getFrameSize();
+            int n;
+            try {
+                n = readFully(t.stream, t.chunk, t.chunk.length);
+            } catch (Exception e) {
+                System.out.println("MusicChannel: read error in " + t.path + ": " + e);
+                t.eof = true;
+                return;
+            }
+            int frames = n / frameSize;
+            if (frames > 0) resampleInto(t, frames);
+            t.framesSinceOpen += frames;
+            if (n < t.chunk.length) {
+                // end of the file: loop back to the loop start, or let the ring drain
+                if (t.loop && t.framesSinceOpen > 0 && restart(t)) continue;
+                t.eof = true;
+            }
+        }
+    }
+
+    private static int readFully(AudioInputStream in, byte[] buf, int len) throws java.io.IOException {
+        int total = 0;
+        while (total < len) {
+            int r = in.read(buf, total, len - total);
+            if (r < 0) break;
+            total += r;
+        }
+        return total;
+    }
+
+    private boolean restart(Track t) {
+        close(t);
+        AudioInputStream in = open(t.path);
+        if (in == null) return false;
+        long skipBytes = t.loopStartFrame * t.srcFormat.getFrameSize();
+        try {
+            while (skipBytes > 0) {
+                long s = in.skip(skipBytes);
+                if (s <= 0) break;
+                skipBytes -= s;
+            }
+        } catch (Exception e) {
+            return false;
+        }
+        t.stream = in;
+        t.framesSinceOpen = 0L;
+        return true;
+    }
+
+    /** Convert frames of 16-bit source audio in t.chunk to stereo at the mixer rate and append to the ring. */
+    private static void resampleInto(Track t, int frames) {
+        byte[] b = t.chunk;
+        int channels = t.srcFormat.getChannels();
+        int frameSize = t.srcFormat.getFrameSize();
+        short[] ring = t.ring;
+        int mask = RING_FRAMES - 1;
+        long w = t.writePos;
+        double pos = t.srcPos;
+        double step = t.step;
+
+        while (true) {
+            int i0 = (int) Math.floor(pos);
+            int i1 = i0 + 1;
+            if (i1 >= frames) break;
+            double f = pos - i0;
+            int l0, r0;
+            if (i0 < 0) {
+                l0 = t.prevL;
+                r0 = t.prevR;
+            } else {
+                l0 = sample(b, i0 * frameSize, 0, channels);
+                r0 = sample(b, i0 * frameSize, 1, channels);
+            }
+            int l1 = sample(b, i1 * frameSize, 0, channels);
+            int r1 = sample(b, i1 * frameSize, 1, channels);
+            int idx = (int) (w & mask) * 2;
+            ring[idx] = (short) Math.round(l0 + (l1 - l0) * f);
+            ring[idx + 1] = (short) Math.round(r0 + (r1 - r0) * f);
+            w++;
+            pos += step;
+        }
+        t.prevL = sample(b, (frames - 1) * frameSize, 0, channels);
+        t.prevR = sample(b, (frames - 1) * frameSize, 1, channels);
+        t.srcPos = pos - frames;
+        t.writePos = w;          // publish after the samples are written
+    }
+
+    private static int sample(byte[] b, int frameOffset, int channel, int channels) {
+        int o = frameOffset + 2 * Math.min(channel, channels - 1);
+        return (short) ((b[o] & 0xff) | (b[o + 1] << 8));
+    }
+
+    // ---------------- Mixing (audio thread) ----------------
+
+    @Override
+    public void mixInto(int[] acc, int frames) {
+        Track prev = previous;
+        Track cur = current;
+        if (prev != null) mixTrack(prev, acc, frames);
+        if (cur != null) mixTrack(cur, acc, frames);
+    }
+
+    private void mixTrack(Track t, int[] acc, int frames) {
+        if (t.finished) return;
+        long r = t.readPos;
+        long avail = t.writePos - r;
+        if (r == 0L && avail == 0L && !t.eof) return;   // just published, first chunk still decoding
+        int n = (int) Math.min(frames, avail);
+        if (n < frames && !t.eof) underruns++;
+
+        short[] ring = t.ring;
+        int mask = RING_FRAMES - 1;
+        float vol = volume;
+        synchronized (t) {
+            float gain = t.gain;
+            for (int i = 0; i < n; i++) {
+                if (t.fadeRemaining > 0) {
+                    gain += t.fadeStep;
+                    if (--t.fadeRemaining == 0 && t.stopAfterFade) {
+                        t.finished = true;
+                        n = i + 1;
+                    }
+                }
+                int g = (int) (gain * vol * (1 << GAIN_SHIFT));
+                int idx = (int) ((r + i) & mask) * 2;
+                acc[2 * i] += (ring[idx] * g) >> GAIN_SHIFT;
+                acc[2 * i + 1] += (ring[idx + 1] * g) >> GAIN_SHIFT;
+            }
+            t.gain = gain;
+        }
+        t.readPos = r + n;
+        if (t.eof && t.readPos >= t.writePos) t.finished = true;
+    }
+}
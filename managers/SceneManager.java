@@ -20,6 +20,8 @@ public class SceneManager {
     private final DialogueManager dialogueManager = DialogueManager.getInstance();
     private final DialogueBoxEntity dialogueBox = new DialogueBoxEntity();
     private boolean dialogueActive = false;
+    private DialogueGraph dialogueGraph = null;
+    private int dialogueNode = -1;
 
     private final LogoManager logoManager = LogoManager.getInstance();
     private final LogoEntity logoEntity = new LogoEntity();
@@ -35,36 +37,70 @@ public class SceneManager {
     }
 
     // ---------------- Dialogue  ----------------
-    public boolean showDialogueFromFile(String path) {  // loads dialogue from file and shows first line
+    public boolean showDialogueFromFile(String path) {  // loads the compiled dialogue and shows its first node
         if (dialogueActive) {
             System.err.println("Dialogue already active; cannot start new dialogue.");
             return false;
         }
-        
-        boolean ok = dialogueManager.loadFromFile(path);
-        if (!ok) return false;
-        String first = dialogueManager.hasNext() ? dialogueManager.nextLine() : "";
-        dialogueBox.setText(first);
-        dialogueActive = (first != null && !first.isEmpty());
+
+        DialogueGraph graph = dialogueManager.loadGraph(path);
+        if (graph == null) return false;
+        dialogueGraph = graph;
+        showDialogueNode(graph.start());
         return true;
     }
 
-    public void advanceDialogue() {  // advances to next line or ends dialogue when file is exhausted
+    public void advanceDialogue() {  // follows the current node's next pointer; lines with choices wait for chooseDialogueOption
         if (!dialogueActive) {
             System.err.println("No active dialogue to advance.");
             return;
         }
+        if (dialogueBox.isRevealing()) {     // first press finishes typing the line out
+            dialogueBox.revealAll();
+            return;
+        }
+        if (dialogueGraph.choiceCount(dialogueNode) > 0) {
+            System.out.println("SceneManager: Pick an option to continue.");
+            return;
+        }
+
+        showDialogueNode(dialogueGraph.next(dialogueNode));
+        if (dialogueActive) System.out.println("SceneManager: Advanced dialogue to next line.");
+    }
+
+    public void chooseDialogueOption(int choice) {  // 0-based option on the current line
+        if (!dialogueActive || choice < 0 || choice >= dialogueGraph.choiceCount(dialogueNode)) return;
+        if (dialogueBox.isRevealing()) {     // options aren't shown until the line has finished typing
+            dialogueBox.revealAll();
+            return;
+        }
+        showDialogueNode(dialogueGraph.choiceTarget(dialogueNode, choice));
+    }
 
-        String next = dialogueManager.nextLine();
-        if (next == null) {
+    private void showDialogueNode(int node) {
+        if (dialogueGraph.isEnd(node)) {
             dialogueActive = false;
+            dialogueNode = -1;
+            dialogueBox.setSpeaker(null);
+            dialogueBox.setChoices(null);
             dialogueBox.setText("");
-
-        } else {
-            dialogueBox.setText(next);
-            dialogueActive = !next.isEmpty();
-            System.out.println("SceneManager: Advanced dialogue to next line.");
+            return;
         }
+
+        int count = dialogueGraph.choiceCount(node);
+        String[] choices = new String[count];
+        for (int i = 0; i < count; i++) choices[i] = dialogueGraph.choiceText(node, i);
+
+        dialogueNode = node;
+        dialogueBox.setSpeaker(dialogueGraph.speaker(node));
+        dialogueBox.setChoices(choices);
+        dialogueBox.setText(dialogueGraph.text(node));
+        dialogueActive = true;
+    }
+
+    /** The dialogue box, e.g. to change its reveal speed. */
+    public DialogueBoxEntity getDialogueBox() {
+        return dialogueBox;
     }
 
     public boolean isDialogueActive() {   // Check if dialogue is currently active
@@ -1,32 +1,74 @@
 package managers;
 
 import java.io.*;		// for playing sound clips
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.sound.sampled.*;
 
+/*
+	Sound effects are played through AudioMixer when the machine has audio output: each sound is
+	decoded once into a shared Sample and any number of copies can overlap. Without a usable
+	output line it falls back to one javax.sound Clip per sound, as before.
+
+	Sounds are registered by name at startup from the files in src/sounds (ping.wav -> "ping"), or
+	with register(). Only the name and path are recorded; a sound is decoded in the background the
+	first time it is played (that first play starts once decoding is done) or when prefetch() asks
+	for it. prefetch/release keep a reference count, and a sound whose count drops to zero is
+	unloaded again, so a large library costs nothing until it is used.
+*/
 public class SoundManager {				// a Singleton class
-	HashMap<String, Clip> clips;
+	Map<String, Clip> clips;			// filled by AssetLoader threads too, hence concurrent
+	Map<String, AudioMixer.Sample> samples;	// decoded PCM for the mixer
+	Map<String, Float> gains;			// per-sound volume set with setVolume (mixer path)
+	Map<String, SoundInfo> sounds;		// registry: name -> file + load state (metadata only until used)
+
+	private final AudioMixer mixer;
+	private final boolean useMixer;
+	private final MusicChannel music;		// streamed tracks, mixed alongside the effects
 
 
 	private Random random;
 
 	private static SoundManager instance = null;	// keeps track of Singleton instance
 
+	public static final String SOUND_DIR = "src/sounds";
+
+	private static final class SoundInfo {	// what the registry knows about one sound
+		final String path;
+		final long fileBytes;			// size on disk (or in the archive); nothing is decoded yet
+		int refs = 0;				// prefetch() minus release()
+		CompletableFuture<Object> loading;	// set once decoding has been requested
+
+		SoundInfo(String path, long fileBytes) {
+			this.path = path;
+			this.fileBytes = fileBytes;
+		}
+	}
+
 	private float volume;
 
 	private SoundManager () {
-		clips = new HashMap<String, Clip>();
+		clips = new ConcurrentHashMap<String, Clip>();
+		samples = new ConcurrentHashMap<String, AudioMixer.Sample>();
+		gains = new ConcurrentHashMap<String, Float>();
+		sounds = new ConcurrentHashMap<String, SoundInfo>();
 		random = new Random();
 
-		Clip clip = loadClip("src/sounds/ping.wav");	// played from start of the game
-		clips.put("ping", clip);
+		mixer = AudioMixer.getInstance();
+		useMixer = AudioMixer.isSupported() && mixer.start();
+		music = new MusicChannel(mixer);
 
-		
+		// names only; nothing is opened here
+		scanDirectory(SOUND_DIR);
 	}
 
 
-	public static SoundManager getInstance() {	// class method to retrieve instance of Singleton
+	public static synchronized SoundManager getInstance() {	// class method to retrieve instance of Singleton
 		if (instance == null)
 			instance = new SoundManager();
 		
@@ -34,13 +76,49 @@ public class SoundManager {				// a Singleton class
 	}		
 
 
+	static AudioInputStream openStream (String fileName) throws Exception {	// archive entry or loose file
+		AssetArchive archive = AssetArchive.getDefault();	// PCM straight from the packed archive if present
+		AudioInputStream audioIn = (archive != null) ? archive.getAudioStream(fileName) : null;
+		if (audioIn == null) {
+			File file = new File(fileName);
+			audioIn = AudioSystem.getAudioInputStream(file.toURI().toURL()); 
+		}
+		return audioIn;
+	}
+
+
+	public AudioMixer.Sample loadSample (String fileName) {	// decodes the file for the mixer
+		try (AudioInputStream audioIn = openStream(fileName)) {
+			return AudioMixer.decode(audioIn);
+		}
+		catch (Exception e) {
+ 			System.out.println ("Error opening sound files: " + e);
+			return null;
+		}
+	}
+
+
+	// decode a sound in whichever form this machine plays it (mixer sample or Clip) and keep it under title;
+	// returns null if it couldn't be loaded. AssetLoader calls this for manifest sounds.
+	public Object loadSound (String title, String fileName) {
+		if (useMixer) {
+			AudioMixer.Sample sample = loadSample(fileName);
+			if (sample != null)
+				samples.put(title, sample);
+			return sample;
+		}
+		Clip clip = loadClip(fileName);
+		addClip(title, clip);
+		return clip;
+	}
+
+
     	public Clip loadClip (String fileName) {	// gets clip from the specified file
  		AudioInputStream audioIn;
 		Clip clip = null;
 
 		try {
-    			File file = new File(fileName);
-    			audioIn = AudioSystem.getAudioInputStream(file.toURI().toURL()); 
+			audioIn = openStream(fileName);
     			clip = AudioSystem.getClip();
     			clip.open(audioIn);
 		}
@@ -51,14 +129,245 @@ public class SoundManager {				// a Singleton class
     	}
 
 
-	public Clip getClip (String title) {
+	public void register (String title, String fileName) {	// name a sound file without loading it yet
+		long bytes = new File(fileName).length();
+		AssetArchive archive = AssetArchive.getDefault();
+		if (archive != null && archive.contains(fileName))
+			bytes = archive.getEntry(fileName).length;
+		sounds.put(title, new SoundInfo(fileName, bytes));
+	}
+
+
+	// register every audio file in dir (and in the packed archive under dir) by its base name
+	public int scanDirectory (String dir) {
+		List<String> found = new ArrayList<String>();
+		File[] files = new File(dir).listFiles();
+		if (files != null) {
+			for (File f : files) {
+				if (f.isFile())
+					found.add(dir + "/" + f.getName());
+			}
+		}
+		AssetArchive archive = AssetArchive.getDefault();
+		if (archive != null) {
+			for (String name : archive.names()) {
+				if (name.startsWith(dir + "/") && name.indexOf('/', dir.length() + 1) < 0 && !found.contains(name))
+					found.add(name);
+			}
+		}
+
+		int count = 0;
+		for (String path : found) {
+			String file = path.substring(path.lastIndexOf('/') + 1);
+			String lower = file.toLowerCase(Locale.ROOT);
+			int dot = file.lastIndexOf('.');
+			if (dot <= 0 || !(lower.endsWith(".wav") || lower.endsWith(".au") || lower.endsWith(".aif") || lower.endsWith(".aiff")))
+				continue;
+			String title = file.substring(0, dot);
+			if (!sounds.containsKey(title)) {
+				register(title, path);
+				count++;
+			}
+		}
+		return count;
+	}
+
+
+	public boolean isRegistered (String title) {
+		return sounds.containsKey(title);
+	}
+
+
+	public List<String> getSoundNames () {
+		return new ArrayList<String>(sounds.keySet());
+	}
+
+
+	// start decoding in the background if it isn't already; null if the name is unknown
+	private CompletableFuture<Object> request (String title) {
+		SoundInfo info = sounds.get(title);
+		if (info == null)
+			return null;
+		synchronized (info) {
+			if (info.loading == null) {
+				// the decode may be shared with a manifest entry under another name: file the result under ours too
+				info.loading = AssetLoader.getInstance().enqueue(AssetLoader.Type.SOUND, title, info.path)
+					.thenApply(asset -> {
+						if (asset instanceof AudioMixer.Sample)
+							samples.putIfAbsent(title, (AudioMixer.Sample) asset);
+						else if (asset instanceof Clip)
+							clips.putIfAbsent(title, (Clip) asset);
+						return asset;
+					});
+			}
+			return info.loading;
+		}
+	}
+
+
+	// keep these sounds loaded (decoding them in the background now) until release() is called
+	public void prefetch (String... titles) {
+		for (String title : titles) {
+			SoundInfo info = sounds.get(title);
+			if (info == null) {
+				System.out.println ("Unknown sound: " + title);
+				continue;
+			}
+			synchronized (info) {
+				info.refs++;
+			}
+			request(title);
+		}
+	}
+
+
+	// drop a prefetch reference; the sound is unloaded when nothing references it any more
+	public void release (String... titles) {
+		for (String title : titles) {
+			SoundInfo info = sounds.get(title);
+			if (info == null)
+				continue;
+			boolean unload;
+			synchronized (info) {
+				info.refs = Math.max(0, info.refs - 1);
+				unload = (info.refs == 0);
+			}
+			if (unload)
+				unload(title);
+		}
+	}
+
+
+	// free the decoded data for a sound (it stays registered and loads again on next use)
+	public void unload (String title) {
+		SoundInfo info = sounds.get(title);
+		if (info == null)
+			return;
+		CompletableFuture<Object> loading;
+		synchronized (info) {
+			loading = info.loading;
+			info.loading = null;
+		}
+		if (loading == null)
+			return;
+		// if it is still decoding, unload once that finishes; only remove what this load produced, so a
+		// reload that has started (and maybe finished) since keeps its own sample
+		loading.thenAccept(asset -> {
+			if (asset instanceof AudioMixer.Sample) {
+				AudioMixer.Sample sample = (AudioMixer.Sample) asset;
+				if (samples.remove(title, sample))
+					mixer.stopAll(sample);
+			} else if (asset instanceof Clip) {
+				Clip clip = (Clip) asset;
+				if (clips.remove(title, clip)) {
+					clip.stop();
+					clip.close();
+				}
+			}
+		});
+		AssetLoader.getInstance().evict(info.path);
+	}
+
 
+	// unload every sound that isn't prefetched and isn't playing right now
+	public void unloadUnused () {
+		for (Map.Entry<String, SoundInfo> e : sounds.entrySet()) {
+			SoundInfo info = e.getValue();
+			synchronized (info) {
+				if (info.refs > 0 || info.loading == null)
+					continue;
+			}
+			AudioMixer.Sample sample = samples.get(e.getKey());
+			Clip clip = clips.get(e.getKey());
+			if ((sample != null && mixer.isPlaying(sample)) || (clip != null && clip.isRunning()))
+				continue;
+			unload(e.getKey());
+		}
+	}
+
+
+	// bytes of decoded audio currently held (mixer samples only)
+	public long getLoadedBytes () {
+		long total = 0;
+		for (AudioMixer.Sample sample : samples.values())
+			total += sample.getBytes();
+		return total;
+	}
+
+
+	public void addClip (String title, Clip clip) {
+		if (clip != null)
+			clips.put(title, clip);
+	}
+
+
+	public AudioMixer.Sample getSample (String title) {	// waits for this one sound to be decoded if needed
+		AudioMixer.Sample sample = samples.get(title);
+		if (sample != null || !useMixer)
+			return sample;
+		await(title);
+		return samples.get(title);
+	}
+
+
+	public Clip getClip (String title) {
+		Clip clip = clips.get(title);
+		if (clip != null || useMixer)
+			return clip;
+		await(title);
 		return clips.get(title);
 	}
 
 
+	private void await (String title) {
+		CompletableFuture<Object> loading = request(title);
+		if (loading != null)
+			loading.join();
+	}
+
+
+	// plays a sound on a free mixer voice; overlapping plays of the same sound are fine.
+	// gain is linear (1 = as recorded), pan -1 (left) .. 1 (right). Returns the voice id (-1 if not played).
+	public int play (String title, float gain, float pan, boolean looping) {
+		if (!useMixer) {
+			playClip(title, looping);
+			return -1;
+		}
+		AudioMixer.Sample sample = samples.get(title);
+		if (sample == null) {
+			// first use: decode in the background and start playing when it's ready
+			CompletableFuture<Object> loading = request(title);
+			if (loading != null)
+				loading.thenRun(() -> startVoice(samples.get(title), title, gain, pan, looping));
+			return -1;
+		}
+		return startVoice(sample, title, gain, pan, looping);
+	}
+
+
+	private int startVoice (AudioMixer.Sample sample, String title, float gain, float pan, boolean looping) {
+		Float volume = gains.get(title);
+		return mixer.play(sample, (volume != null) ? volume * gain : gain, pan, looping);
+	}
+
+
     	public void playClip(String title, boolean looping) { // plays the specified clip, optionally looping if looping is true
-		Clip clip = getClip(title);
+		if (useMixer) {
+			play(title, 1f, 0f, looping);
+			return;
+		}
+		Clip clip = clips.get(title);
+		if (clip == null) {
+			CompletableFuture<Object> loading = request(title);
+			if (loading != null)
+				loading.thenRun(() -> startClip(clips.get(title), looping));
+			return;
+		}
+		startClip(clip, looping);
+    	}
+
+
+	private void startClip (Clip clip, boolean looping) {
 		if (clip != null) {
 			clip.setFramePosition(0);
 			if (looping)
@@ -70,14 +379,29 @@ public class SoundManager {				// a Singleton class
 
 
     	public void stopClip(String title) {  // stops the specified clip
-		Clip clip = getClip(title);
+		if (useMixer) {
+			AudioMixer.Sample sample = samples.get(title);
+			if (sample != null)
+				mixer.stopAll(sample);
+			return;
+		}
+		Clip clip = clips.get(title);
 		if (clip != null) {
 			clip.stop();
 		}
     	}
 
 	public void setVolume (String title, float volume) {
+		if (useMixer) {
+			gains.put(title, volume);
+			AudioMixer.Sample sample = samples.get(title);
+			if (sample != null)
+				mixer.setGain(sample, volume);
+			return;
+		}
 		Clip clip = getClip(title);
+		if (clip == null)
+			return;
 
 		FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
 	
@@ -94,5 +418,44 @@ public class SoundManager {				// a Singleton class
 		System.out.println(randomClipName);
         playClip(randomClipName, looping);
     }
+
+
+	// music is streamed in small chunks rather than loaded as a Clip, so long tracks cost little memory.
+	// loopStartSeconds is where a looping track restarts (0 = from the top).
+
+	public boolean playMusic (String fileName, boolean looping, double loopStartSeconds) {
+		if (!useMixer) {
+			System.out.println ("No audio output for music: " + fileName);
+			return false;
+		}
+		return music.play(fileName, looping, loopStartSeconds);
+	}
+
+
+	public boolean crossfadeMusic (String fileName, long fadeMs, boolean looping, double loopStartSeconds) {
+		if (!useMixer)
+			return false;
+		return music.crossfadeTo(fileName, fadeMs, looping, loopStartSeconds);
+	}
+
+
+	public void stopMusic (long fadeMs) {
+		music.stop(fadeMs);
+	}
+
+
+	public MusicChannel getMusic() {
+		return music;
+	}
+
+
+	public AudioMixer getMixer() {
+		return mixer;
+	}
+
+
+	public boolean isUsingMixer() {
+		return useMixer;
+	}
 	
 }
\ No newline at end of file
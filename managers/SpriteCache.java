@@ -0,0 +1,171 @@
+package managers;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * SpriteCache: rasterizes simple shape entities once and hands back the image, so drawing the
+ * entity each frame is a single drawImage blit instead of building and filling geometry.
+ *
+ * Sprites are keyed by (shape, size, fill colour, outline colour) and shared by every entity
+ * that looks the same. Entities hold a Handle, which remembers the last key it asked for: as
+ * long as size and colours don't change it returns the cached image without even a map lookup,
+ * and as soon as they do it fetches (or renders) the matching sprite.
+ *
+ * A null fill or outline colour means "not drawn" (transparent). The cache keeps the MAX_SPRITES
+ * most recently used looks; older ones are dropped (entities holding them keep their image).
+ */
+public class SpriteCache {
+    private static SpriteCache instance = null;
+
+    /** Shapes the cache knows how to draw. Outlined shapes get a border 10% of size on each side. */
+    public enum Shape { CIRCLE, OUTLINED_CIRCLE, RECT, OUTLINED_RECT }
+
+    /** Most sprites kept at once; beyond that the least recently used look is dropped. */
+    public static final int MAX_SPRITES = 256;
+
+    private final LinkedHashMap<Key, BufferedImage> sprites = new LinkedHashMap<>(64, 0.75f, true);
+
+    public SpriteCache() { }
+
+    public static SpriteCache getInstance() {
+        if (instance == null) instance = new SpriteCache();
+        return instance;
+    }
+
+    /** How far a sprite extends beyond the entity's own box on each side (outline + AA margin). */
+    public static int getPadding(Shape shape, int size) {
+        boolean outlined = (shape == Shape.OUTLINED_CIRCLE || shape == Shape.OUTLINED_RECT);
+        return (outlined ? (int) Math.ceil(size * 0.1) : 0) + 1;
+    }
+
+    /** Get (rendering on first use) the sprite for this look. fill / outline may be null (not drawn). */
+    public synchronized BufferedImage get(Shape shape, int size, Color fill, Color outline) {
+        Objects.requireNonNull(shape, "SpriteCache: shape is null");
+        if (size <= 0) throw new IllegalArgumentException("SpriteCache: size must be positive, got " + size);
+        Key key = new Key(shape, size, fill, outline);
+        BufferedImage img = sprites.get(key);
+        if (img == null) {
+            img = render(shape, size, fill, outline);
+            sprites.put(key, img);
+            if (sprites.size() > MAX_SPRITES) {
+                Iterator<BufferedImage> eldest = sprites.values().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return img;
+    }
+
+    /** Drop every cached sprite (e.g. after a display change). */
+    public synchronized void clear() {
+        sprites.clear();
+    }
+
+    public synchronized int size() {
+        return sprites.size();
+    }
+
+    private BufferedImage render(Shape shape, int size, Color fill, Color outline) {
+        int pad = getPadding(shape, size);
+        int dim = size + pad * 2;
+        BufferedImage img = ImageManager.createCompatibleImage(dim, dim, Transparency.TRANSLUCENT);
+        Graphics2D g2 = img.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        double border = size * 0.1;
+        switch (shape) {
+            case OUTLINED_CIRCLE -> {
+                Ellipse2D inner = new Ellipse2D.Double(pad, pad, size, size);
+                Area ring = new Area(new Ellipse2D.Double(pad - border, pad - border, size + border * 2, size + border * 2));
+                ring.subtract(new Area(inner));
+                paint(g2, outline, ring);
+                paint(g2, fill, inner);
+            }
+            case CIRCLE -> paint(g2, fill, new Ellipse2D.Double(pad, pad, size, size));
+            case OUTLINED_RECT -> {
+                Rectangle2D inner = new Rectangle2D.Double(pad, pad, size, size);
+                Area ring = new Area(new Rectangle2D.Double(pad - border, pad - border, size + border * 2, size + border * 2));
+                ring.subtract(new Area(inner));
+                paint(g2, outline, ring);
+                paint(g2, fill, inner);
+            }
+            case RECT -> paint(g2, fill, new Rectangle2D.Double(pad, pad, size, size));
+        }
+        g2.dispose();
+        return img;
+    }
+
+    // A null colour leaves the shape out (Graphics2D.setColor(null) would keep the previous colour)
+    private static void paint(Graphics2D g2, Color color, java.awt.Shape shape) {
+        if (color == null) return;
+        g2.setColor(color);
+        g2.fill(shape);
+    }
+
+    /**
+     * Per-entity handle. get(...) is allocation-free while the look stays the same; a change in
+     * size or colour invalidates the held image and fetches the right one.
+     */
+    public static class Handle {
+        private Shape shape;
+        private int size = -1;
+        private Color fill;
+        private Color outline;
+        private BufferedImage image;
+        private int padding;
+
+        public BufferedImage get(Shape shape, int size, Color fill, Color outline) {
+            if (image == null || shape != this.shape || size != this.size
+                    || !Objects.equals(fill, this.fill) || !Objects.equals(outline, this.outline)) {
+                this.shape = shape;
+                this.size = size;
+                this.fill = fill;
+                this.outline = outline;
+                this.padding = SpriteCache.getPadding(shape, size);
+                this.image = SpriteCache.getInstance().get(shape, size, fill, outline);
+            }
+            return image;
+        }
+
+        /** Offset from the entity's top-left to the sprite's top-left (draw at x - padding). */
+        public int getPadding() {
+            return padding;
+        }
+    }
+
+    private static final class Key {
+        final Shape shape;
+        final int size;
+        final int fill;
+        final int outline;
+
+        Key(Shape shape, int size, Color fill, Color outline) {
+            this.shape = shape;
+            this.size = size;
+            this.fill = (fill == null) ? 0 : fill.getRGB();
+            this.outline = (outline == null) ? 0 : outline.getRGB();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return shape == k.shape && size == k.size && fill == k.fill && outline == k.outline;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((shape.ordinal() * 31 + size) * 31 + fill) * 31 + outline;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package managers;
+
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+/**
+ * TextureAtlas: packs many small sprites into a few large pages and hands out AtlasRegions.
+ *
+ *   TextureAtlas atlas = TextureAtlas.buildFromFiles("sprites", paths, new File("cache"));
+ *   AtlasRegion hero = atlas.getRegion("src/images/hero.png");
+ *   hero.draw(g2, x, y);
+ *
+ * - add(name, image) queues sprites; addSheet(...) slices a sprite sheet into frames; pack()
+ *   lays them out on shelves (tallest first) in compatible translucent pages.
+ * - sliceSheet(...) turns a sheet into regions in place, without packing or copying.
+ * - Packed atlases can be saved to disk (PNG pages + a small text index) and reloaded next start;
+ *   the index stores a signature of the sources and the page size, so a stale cache (or one packed
+ *   for a different page size) is rebuilt automatically.
+ */
+public class TextureAtlas {
+    private static final int PADDING = 2;   // gap between sprites so filtering never bleeds neighbours
+    public static final int DEFAULT_PAGE_SIZE = 2048;
+
+    private final int pageSize;
+    private final LinkedHashMap<String, BufferedImage> pending = new LinkedHashMap<>();
+    private final LinkedHashMap<String, AtlasRegion> regions = new LinkedHashMap<>();
+    private final List<BufferedImage> pages = new ArrayList<>();
+
+    public TextureAtlas(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public TextureAtlas() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /** Queue a sprite for the next pack(). */
+    public void add(String name, BufferedImage image) {
+        if (image != null) pending.put(name, image);
+    }
+
+    /** Queue every frame of a sprite sheet (row by row) as name#0, name#1, ... for the next pack(). */
+    public void addSheet(String name, BufferedImage sheet, int frameWidth, int frameHeight) {
+        int i = 0;
+        for (AtlasRegion r : sliceSheet(name, sheet, frameWidth, frameHeight)) {
+            pending.put(name + "#" + i++, r.getImage());
+        }
+    }
+
+    /** Cut a sprite sheet into frame regions (row by row) that point into the sheet itself. */
+    public static List<AtlasRegion> sliceSheet(String name, BufferedImage sheet, int frameWidth, int frameHeight) {
+        List<AtlasRegion> frames = new ArrayList<>();
+        int i = 0;
+        for (int y = 0; y + frameHeight <= sheet.getHeight(); y += frameHeight) {
+            for (int x = 0; x + frameWidth <= sheet.getWidth(); x += frameWidth) {
+                frames.add(new AtlasRegion(name + "#" + i++, sheet, x, y, frameWidth, frameHeight));
+            }
+        }
+        return frames;
+    }
+
+    /** Lay out all queued sprites on pages. Existing regions stay valid; new pages are appended. */
+    public void pack() {
+        List<Map.Entry<String, BufferedImage>> items = new ArrayList<>(pending.entrySet());
+        items.sort((a, b) -> b.getValue().getHeight() - a.getValue().getHeight());
+        pending.clear();
+
+        BufferedImage page = null;
+        Graphics2D g2 = null;
+        int shelfX = 0, shelfY = 0, shelfH = 0;
+        for (Map.Entry<String, BufferedImage> item : items) {
+            BufferedImage img = item.getValue();
+            int w = img.getWidth() + PADDING;
+            int h = img.getHeight() + PADDING;
+            if (w > pageSize || h > pageSize) {
+                // Too big to share a page: give it a page of its own
+                BufferedImage own = ImageManager.createCompatibleImage(img.getWidth(), img.getHeight(), Transparency.TRANSLUCENT);
+                Graphics2D og = own.createGraphics();
+                og.drawImage(img, 0, 0, null);
+                og.dispose();
+                pages.add(own);
+                regions.put(item.getKey(), new AtlasRegion(item.getKey(), own, 0, 0, img.getWidth(), img.getHeight()));
+                continue;
+            }
+            if (page != null && shelfX + w > pageSize) {         // next shelf
+                shelfX = 0;
+                shelfY += shelfH;
+                shelfH = 0;
+            }
+            if (page == null || shelfY + h > pageSize) {         // next page
+                if (g2 != null) g2.dispose();
+                page = ImageManager.createCompatibleImage(pageSize, pageSize, Transparency.TRANSLUCENT);
+                g2 = page.createGraphics();
+                pages.add(page);
+                shelfX = 0;
+                shelfY = 0;
+                shelfH = 0;
+            }
+            g2.drawImage(img, shelfX, shelfY, null);
+            regions.put(item.getKey(), new AtlasRegion(item.getKey(), page, shelfX, shelfY, img.getWidth(), img.getHeight()));
+            shelfX += w;
+            shelfH = Math.max(shelfH, h);
+        }
+        if (g2 != null) g2.dispose();
+    }
+
+    public AtlasRegion getRegion(String name) {
+        return regions.get(name);
+    }
+
+    /** Frames added with addSheet(name, ...), in order. */
+    public List<AtlasRegion> getSheetFrames(String name) {
+        List<AtlasRegion> frames = new ArrayList<>();
+        for (int i = 0; regions.containsKey(name + "#" + i); i++) {
+            frames.add(regions.get(name + "#" + i));
+        }
+        return frames;
+    }
+
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    public int getRegionCount() {
+        return regions.size();
+    }
+
+    // ---------------- Disk cache ----------------
+
+    /** Signature of a set of source files (paths, sizes, modification times). */
+    public static String signatureOf(List<String> paths) {
+        long h = 1125899906842597L;
+        for (String p : paths) {
+            File f = new File(p);
+            h = 31 * h + p.hashCode();
+            h = 31 * h + f.length();
+            h = 31 * h + f.lastModified();
+        }
+        return Long.toHexString(h);
+    }
+
+    /** Write pages as dir/name_N.png and the region index as dir/name.atlas. */
+    public void save(File dir, String name, String signature) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        for (int i = 0; i < pages.size(); i++) {
+            ImageIO.write(pages.get(i), "png", new File(dir, name + "_" + i + ".png"));
+        }
+        try (PrintWriter out = new PrintWriter(new File(dir, name + ".atlas"))) {
+            out.println("atlas " + signature + " " + pages.size() + " " + pageSize);
+            for (AtlasRegion r : regions.values()) {
+                out.println(pages.indexOf(r.getPage()) + " " + r.getX() + " " + r.getY() + " "
+                        + r.getWidth() + " " + r.getHeight() + " " + r.getName());
+            }
+        }
+    }
+
+    /** Load an atlas saved with save(); returns null if missing or built from different sources. */
+    public static TextureAtlas load(File dir, String name, String signature) {
+        File index = new File(dir, name + ".atlas");
+        if (!index.exists()) return null;
+        try (BufferedReader in = new BufferedReader(new FileReader(index))) {
+            String[] header = in.readLine().split(" ");
+            if (header.length < 3 || !header[0].equals("atlas") || !header[1].equals(signature)) return null;
+
+            // Indexes written before the page size was stored were always packed at the default
+            int pageSize = (header.length > 3) ? Integer.parseInt(header[3]) : DEFAULT_PAGE_SIZE;
+            TextureAtlas atlas = new TextureAtlas(pageSize);
+            int pageCount = Integer.parseInt(header[2]);
+            for (int i = 0; i < pageCount; i++) {
+                BufferedImage page = ImageManager.loadBufferedImage(new File(dir, name + "_" + i + ".png").getPath());
+                if (page == null) return null;
+                atlas.pages.add(page);
+            }
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] f = line.split(" ", 6);
+                if (f.length < 6) continue;
+                BufferedImage page = atlas.pages.get(Integer.parseInt(f[0]));
+                atlas.regions.put(f[5], new AtlasRegion(f[5], page, Integer.parseInt(f[1]), Integer.parseInt(f[2]),
+                        Integer.parseInt(f[3]), Integer.parseInt(f[4])));
+            }
+            return atlas;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("TextureAtlas: ignoring unreadable cache " + index + ": " + e);
+            return null;
+        }
+    }
+
+    /** buildFromFiles with the default page size. */
+    public static TextureAtlas buildFromFiles(String name, List<String> paths, File cacheDir) {
+        return buildFromFiles(name, paths, cacheDir, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Build an atlas from image files, keyed by path. Uses the cached copy in cacheDir when it was
+     * built from the same files at the same page size; otherwise packs them and refreshes the cache.
+     */
+    public static TextureAtlas buildFromFiles(String name, List<String> paths, File cacheDir, int pageSize) {
+        String signature = signatureOf(paths);
+        TextureAtlas atlas = load(cacheDir, name, signature);
+        if (atlas != null && atlas.pageSize == pageSize) return atlas;
+
+        atlas = new TextureAtlas(pageSize);
+        for (String p : paths) {
+            atlas.add(p, ImageManager.loadBufferedImage(p));
+        }
+        atlas.pack();
+        try {
+            atlas.save(cacheDir, name, signature);
+        } catch (IOException e) {
+            System.out.println("TextureAtlas: could not write cache: " + e.getMessage());
+        }
+        return atlas;
+    }
+}
@@ -11,6 +11,7 @@ public class TransitionManager {
     private boolean active = false;
     private long endTimeMs = 0L;
     private long startTimeMs = 0L;
+    private final GameClock clock = GameClock.getInstance();   // wall clock, or virtual time when headless
 
     // Fade timings (in milliseconds). By default we fade in then out 200ms each.
   
@@ -45,7 +46,7 @@ public class TransitionManager {
             scaledFadeOut = Math.max(0, (long) Math.round(fadeOutMs * factor));
         }
 
-        startTimeMs = System.currentTimeMillis();
+        startTimeMs = clock.currentTimeMillis();
         endTimeMs = startTimeMs + totalDurationMs;
         this._lastFadeInMs = scaledFadeIn;
         this._lastFadeOutMs = scaledFadeOut;
@@ -61,7 +62,7 @@ public class TransitionManager {
     /** Returns true while the transition is active (including fade period). */
     public boolean isActive() {
         if (!active) return false;
-        if (System.currentTimeMillis() > endTimeMs) {
+        if (clock.currentTimeMillis() > endTimeMs) {
             active = false;
             return false;
         }
@@ -71,7 +72,7 @@ public class TransitionManager {
     /** Returns the current opacity (0.0 to 1.0) of the transition overlay. */
     public float getOpacity() {
         if (!active) return 0f;
-        long now = System.currentTimeMillis();
+        long now = clock.currentTimeMillis();
         long elapsed = now - startTimeMs;
         long total = this._lastTotalMs;
         if (elapsed >= total) {
@@ -0,0 +1,98 @@
+package render;
+
+import java.awt.AWTException;
+import java.awt.BorderLayout;
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.ImageCapabilities;
+import java.awt.Toolkit;
+import java.awt.event.MouseListener;
+import java.awt.image.BufferStrategy;
+import javax.swing.SwingUtilities;
+
+/**
+ * BufferStrategyBackend: active rendering through a heavyweight Canvas placed inside the host
+ * panel. Asks for a page-flipping strategy first and falls back to whatever AWT can provide
+ * (usually blitting from an accelerated back buffer). Mouse listeners already registered on the
+ * host are forwarded to the canvas, since the canvas now receives those events.
+ */
+public class BufferStrategyBackend implements RenderBackend {
+    private final Container host;
+    private final Canvas canvas = new Canvas();
+    private volatile boolean installed = false;
+    private BufferStrategy strategy;
+    private Graphics2D g2;
+
+    public BufferStrategyBackend(Container host) {
+        this.host = host;
+        canvas.setIgnoreRepaint(true);
+        canvas.setFocusable(false);     // keyboard focus stays with the Swing window
+        canvas.setBackground(host.getBackground());
+        SwingUtilities.invokeLater(this::install);
+    }
+
+    private void install() {
+        host.setLayout(new BorderLayout());
+        host.add(canvas, BorderLayout.CENTER);
+        for (MouseListener l : host.getMouseListeners()) {
+            canvas.addMouseListener(l);
+        }
+        host.revalidate();
+        installed = true;
+    }
+
+    @Override
+    public Graphics2D beginFrame(int width, int height) {
+        if (!installed || !canvas.isDisplayable() || canvas.getWidth() <= 0 || canvas.getHeight() <= 0) {
+            return null;
+        }
+        if (strategy == null) {
+            createStrategy();
+        }
+        g2 = (Graphics2D) strategy.getDrawGraphics();
+        g2.setClip(0, 0, Math.min(width, canvas.getWidth()), Math.min(height, canvas.getHeight()));
+        return g2;
+    }
+
+    private void createStrategy() {
+        try {
+            canvas.createBufferStrategy(2, new BufferCapabilities(
+                    new ImageCapabilities(true), new ImageCapabilities(true),
+                    BufferCapabilities.FlipContents.UNDEFINED));
+        } catch (AWTException e) {
+            // page flipping not available (windowed mode on most platforms): let AWT choose
+            canvas.createBufferStrategy(2);
+        }
+        strategy = canvas.getBufferStrategy();
+        System.out.println("BufferStrategyBackend: page flipping = "
+                + strategy.getCapabilities().isPageFlipping());
+    }
+
+    @Override
+    public boolean endFrame() {
+        if (g2 != null) {
+            g2.dispose();
+            g2 = null;
+        }
+        if (strategy == null) return true;
+        if (strategy.contentsRestored()) return false;   // surface came back blank; redraw first
+        strategy.show();
+        Toolkit.getDefaultToolkit().sync();
+        return !strategy.contentsLost();
+    }
+
+    @Override
+    public void dispose() {
+        if (g2 != null) g2.dispose();
+        g2 = null;
+        if (strategy != null) strategy.dispose();
+        strategy = null;
+        SwingUtilities.invokeLater(() -> {
+            host.remove(canvas);
+            host.revalidate();
+            host.repaint();
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package render;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * BufferedImageBackend: the original software path. Draws into a TYPE_INT_RGB image and copies
+ * it onto the target component. The buffer only grows, so resizing the panel smaller (or back
+ * to a size we've seen) does not reallocate it.
+ *
+ * The target may be null, in which case frames are only drawn into the image (offscreen use).
+ */
+public class BufferedImageBackend implements RenderBackend {
+    private final Component target;
+    private BufferedImage buffer;
+    private Graphics2D g2;
+    private int width;
+    private int height;
+
+    public BufferedImageBackend(Component target) {
+        this.target = target;
+    }
+
+    @Override
+    public Graphics2D beginFrame(int width, int height) {
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+        if (buffer == null || buffer.getWidth() < this.width || buffer.getHeight() < this.height) {
+            int w = Math.max(this.width, buffer == null ? 0 : buffer.getWidth());
+            int h = Math.max(this.height, buffer == null ? 0 : buffer.getHeight());
+            buffer = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        }
+        g2 = buffer.createGraphics();
+        g2.setClip(0, 0, this.width, this.height);
+        return g2;
+    }
+
+    @Override
+    public boolean endFrame() {
+        if (g2 != null) {
+            g2.dispose();
+            g2 = null;
+        }
+        if (target == null) return true;
+
+        // Blit buffer to screen (1:1, only the visible part of the buffer)
+        Graphics screen = target.getGraphics();
+        if (screen != null) {
+            screen.drawImage(buffer, 0, 0, width, height, 0, 0, width, height, null);
+            screen.dispose();
+        }
+        return true;
+    }
+
+    /** The back buffer; only the top-left width x height of the last frame is meaningful. */
+    public BufferedImage getImage() {
+        return buffer;
+    }
+
+    @Override
+    public void dispose() {
+        if (g2 != null) g2.dispose();
+        g2 = null;
+        buffer = null;
+    }
+}
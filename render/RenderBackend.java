@@ -0,0 +1,27 @@
+package render;
+
+import java.awt.Graphics2D;
+
+/**
+ * RenderBackend: how a frame gets from our draw code onto the screen.
+ *
+ * Usage per frame:
+ *   do {
+ *       Graphics2D g2 = backend.beginFrame(w, h);
+ *       if (g2 == null) break;      // nothing to draw on yet (not displayable)
+ *       ...draw...
+ *   } while (!backend.endFrame());  // false means the contents were lost; draw again
+ *
+ * The backend owns the Graphics2D returned by beginFrame and disposes it in endFrame.
+ */
+public interface RenderBackend {
+
+    /** Prepare a surface of at least width x height and return a Graphics2D clipped to it, or null. */
+    Graphics2D beginFrame(int width, int height);
+
+    /** Present the frame. Returns false if the surface was lost and the frame must be redrawn. */
+    boolean endFrame();
+
+    /** Release any surfaces or components held by this backend. */
+    void dispose();
+}
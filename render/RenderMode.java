@@ -0,0 +1,13 @@
+package render;
+
+/**
+ * RenderMode: which RenderBackend GamePanel presents frames with.
+ * - BUFFERED_IMAGE: original path, software back buffer copied to the panel (safe fallback)
+ * - VOLATILE_IMAGE: accelerated back buffer in video memory, copied to the panel
+ * - BUFFER_STRATEGY: heavyweight Canvas with page flipping where the platform supports it
+ */
+public enum RenderMode {
+    BUFFERED_IMAGE,
+    VOLATILE_IMAGE,
+    BUFFER_STRATEGY
+}
@@ -0,0 +1,84 @@
+package render;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Toolkit;
+import java.awt.image.VolatileImage;
+
+/**
+ * VolatileImageBackend: accelerated back buffer that lives in video memory where possible.
+ * Handles the usual VolatileImage life cycle: validate() before drawing, recreate when the
+ * image becomes incompatible with the screen, and report contentsLost() so the caller redraws.
+ * Like the BufferedImage path, the buffer only grows.
+ */
+public class VolatileImageBackend implements RenderBackend {
+    private final Component target;
+    private VolatileImage buffer;
+    private GraphicsConfiguration config;
+    private Graphics2D g2;
+    private int width;
+    private int height;
+
+    public VolatileImageBackend(Component target) {
+        this.target = target;
+    }
+
+    @Override
+    public Graphics2D beginFrame(int width, int height) {
+        GraphicsConfiguration gc = target.getGraphicsConfiguration();
+        if (gc == null) return null;   // not displayable yet
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+
+        if (buffer == null || gc != config || buffer.getWidth() < this.width || buffer.getHeight() < this.height) {
+            createBuffer(gc);
+        }
+        if (buffer.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+            createBuffer(gc);
+        }
+
+        g2 = buffer.createGraphics();
+        g2.setClip(0, 0, this.width, this.height);
+        return g2;
+    }
+
+    private void createBuffer(GraphicsConfiguration gc) {
+        int w = this.width;
+        int h = this.height;
+        if (buffer != null && gc == config) {
+            w = Math.max(w, buffer.getWidth());
+            h = Math.max(h, buffer.getHeight());
+        }
+        if (buffer != null) buffer.flush();
+        buffer = gc.createCompatibleVolatileImage(w, h);
+        config = gc;
+    }
+
+    @Override
+    public boolean endFrame() {
+        if (g2 != null) {
+            g2.dispose();
+            g2 = null;
+        }
+        if (buffer == null || buffer.contentsLost()) return false;
+
+        Graphics screen = target.getGraphics();
+        if (screen != null) {
+            screen.drawImage(buffer, 0, 0, width, height, 0, 0, width, height, null);
+            screen.dispose();
+            Toolkit.getDefaultToolkit().sync();   // flush the pipeline so frames don't bunch up on X11
+        }
+        return !buffer.contentsLost();
+    }
+
+    @Override
+    public void dispose() {
+        if (g2 != null) g2.dispose();
+        g2 = null;
+        if (buffer != null) buffer.flush();
+        buffer = null;
+        config = null;
+    }
+}
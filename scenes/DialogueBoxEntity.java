@@ -2,51 +2,238 @@ package scenes;
 
 import java.awt.Color;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Transparency;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.awt.image.BufferedImage;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.List;
+import managers.GameClock;
 
 /**
  * DialogueBoxEntity: minimal text box overlay.
  * Call setText(...) then draw(g2) from your panel's render method.
+ * An optional speaker name is drawn in front of the text, and choices are listed below it as
+ * "1. ...", "2. ..." (the box grows to fit them).
+ *
+ * Text is word-wrapped to the panel width with LineBreakMeasurer. The wrapped TextLayouts are built
+ * once per text / width and reused every frame, and the text is typed out at revealSpeed characters
+ * per second. The finished box is kept as an image, so a box that isn't changing is a single blit.
  */
 public class DialogueBoxEntity{
-    
+
+    // One wrapped line: its shaped layout, the character range it covers and where it sits in the box
+    private static final class Line {
+        final TextLayout layout;
+        final int start, end;
+        final float x, baseline;
+        final boolean choice;
+
+        Line(TextLayout layout, int start, int end, float x, float baseline, boolean choice) {
+            this.layout = layout;
+            this.start = start;
+            this.end = end;
+            this.x = x;
+            this.baseline = baseline;
+            this.choice = choice;
+        }
+    }
+
+    // Layouts are measured with a fixed context (antialiased, integer metrics) so they don't depend on the target
+    private static final FontRenderContext FRC = new FontRenderContext(null, true, false);
+
+    private final GameClock clock = GameClock.getInstance();
     private String text = "";
+    private String speaker = null;
+    private String[] choices = new String[0];
     private final int padding = 12;
     private final Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 18);
+    private final Font speakerFont = font.deriveFont(Font.BOLD);
+    private final Color speakerColor = new Color(255, 220, 120);
+    private final Color choiceColor = new Color(180, 200, 255);
 
-    // Where to draw (relative to panel): bottom bar height
+    // Where to draw (relative to panel): bottom bar height (minimum; grows with wrapped text)
     private final int boxHeight = 100;
 
+    // Typewriter reveal: characters per second (0 = show everything at once)
+    private int revealSpeed = 40;
+    private long revealStart = 0L;
+    private boolean revealSkipped = false;
+
+    // Cached layout, rebuilt when text / speaker / choices / width change
+    private List<Line> lines = null;
+    private int layoutWidth = -1;
+    private int layoutHeight = 0;
+    private int prefixLength = 0;       // "Speaker: " characters, shown straight away
+    private int textEnd = 0;            // prefix + text characters
+
+    // Cached box image and the reveal position it was drawn at
+    private boolean cacheBox = true;
+    private BufferedImage boxImage = null;
+    private int boxRevealed = -1;
+
     public void setText(String text) {
         this.text = (text == null) ? "" : text;
+        revealStart = clock.nanoTime();
+        revealSkipped = false;
+        invalidate();
+    }
+
+    /** Name shown before the text; null for narration. */
+    public void setSpeaker(String speaker) {
+        this.speaker = speaker;
+        invalidate();
+    }
+
+    /** Options listed under the text; null or empty for none. */
+    public void setChoices(String[] choices) {
+        this.choices = (choices == null) ? new String[0] : choices;
+        invalidate();
+    }
+
+    /** Typewriter speed in characters per second; 0 shows each line in full immediately. */
+    public void setRevealSpeed(int charsPerSecond) {
+        this.revealSpeed = Math.max(0, charsPerSecond);
+    }
+
+    /** Keep the drawn box as an image between frames (on by default). */
+    public void setCacheBox(boolean cacheBox) {
+        this.cacheBox = cacheBox;
+        if (!cacheBox) boxImage = null;
+    }
+
+    /** True while the current text is still being typed out. */
+    public boolean isRevealing() {
+        return revealedCount() < prefixLength + text.length();
+    }
+
+    /** Finish the typewriter effect for the current text. */
+    public void revealAll() {
+        revealSkipped = true;
+    }
+
+    private void invalidate() {
+        lines = null;
+        boxImage = null;
+    }
+
+    private int revealedCount() {
+        int total = prefixLength + text.length();
+        if (revealSkipped || revealSpeed == 0) return total;
+        long elapsed = Math.max(0L, clock.nanoTime() - revealStart);
+        long chars = elapsed * revealSpeed / 1_000_000_000L;
+        return (int) Math.min(total, prefixLength + chars);
     }
 
     /** Draw a semi-transparent box at the bottom with the current text. */
     public void draw(Graphics2D g2, int panelWidth, int panelHeight) {
-        // Box background
-        int x = 0;
-        int y = panelHeight - boxHeight;
-        int w = panelWidth;
-        int h = boxHeight;
+        if (panelWidth <= 0) return;
+        if (lines == null || layoutWidth != panelWidth) layout(panelWidth);
+        int revealed = revealedCount();
+        int y = panelHeight - layoutHeight;
 
-        g2.setColor(Color.black);
-        g2.fillRect(x, y, w, h);
+        if (!cacheBox) {
+            paintBox(g2, 0, y, panelWidth, revealed);
+            return;
+        }
+        if (boxImage == null || boxRevealed != revealed) {
+            if (boxImage == null) {
+                boxImage = g2.getDeviceConfiguration().createCompatibleImage(panelWidth, layoutHeight, Transparency.OPAQUE);
+            }
+            Graphics2D bg = boxImage.createGraphics();
+            try {
+                paintBox(bg, 0, 0, panelWidth, revealed);
+            } finally {
+                bg.dispose();
+            }
+            boxRevealed = revealed;
+        }
+        g2.drawImage(boxImage, 0, y, null);
+    }
 
-        // Text
-        g2.setFont(font);
-        g2.setColor(Color.WHITE);
+    private void paintBox(Graphics2D g2, int x, int y, int w, int revealed) {
+        g2.setColor(Color.black);
+        g2.fillRect(x, y, w, layoutHeight);
         g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-        FontMetrics fm = g2.getFontMetrics();
 
-        // Simple single-line render; keep it minimal
-        int textY = y + padding + fm.getAscent();
-        g2.drawString(text, x + padding, textY);
+        boolean complete = revealed >= textEnd;
+        Shape clip = g2.getClip();
+        for (Line line : lines) {
+            if (line.choice) {
+                if (!complete) break;   // options appear once the line has finished typing
+                line.layout.draw(g2, x + line.x, y + line.baseline);
+            } else if (revealed >= line.end) {
+                line.layout.draw(g2, x + line.x, y + line.baseline);
+            } else if (revealed > line.start) {
+                // Partly typed line: clip the shaped line at the caret instead of re-shaping a substring
+                double right = line.layout.getLogicalHighlightShape(0, revealed - line.start).getBounds2D().getMaxX();
+                g2.clipRect(x + (int) line.x, y, (int) Math.ceil(right), layoutHeight);
+                line.layout.draw(g2, x + line.x, y + line.baseline);
+                g2.setClip(clip);
+                break;
+            } else {
+                break;
+            }
+        }
+    }
+
+    // Wrap "Speaker: text" and each choice to the box width and record where every line goes
+    private void layout(int panelWidth) {
+        List<Line> out = new ArrayList<>();
+        float wrapWidth = Math.max(1, panelWidth - 2 * padding);
+        float y = padding;
+
+        String prefix = (speaker != null) ? speaker + ": " : "";
+        prefixLength = prefix.length();
+        textEnd = prefixLength + text.length();
+        String paragraph = prefix + text;
+        if (!paragraph.isEmpty()) {
+            AttributedString as = new AttributedString(paragraph);
+            as.addAttribute(TextAttribute.FONT, font);
+            as.addAttribute(TextAttribute.FOREGROUND, Color.WHITE);
+            if (prefixLength > 0) {
+                as.addAttribute(TextAttribute.FONT, speakerFont, 0, prefixLength);
+                as.addAttribute(TextAttribute.FOREGROUND, speakerColor, 0, prefixLength);
+            }
+            y = wrap(as, paragraph.length(), padding, wrapWidth, y, false, out);
+        } else {
+            y += font.getLineMetrics("", FRC).getHeight();
+        }
+
+        for (int i = 0; i < choices.length; i++) {
+            String option = (i + 1) + ". " + choices[i];
+            AttributedString as = new AttributedString(option);
+            as.addAttribute(TextAttribute.FONT, font);
+            as.addAttribute(TextAttribute.FOREGROUND, choiceColor);
+            y = wrap(as, option.length(), padding * 2, wrapWidth - padding, y, true, out);
+        }
+
+        lines = out;
+        layoutWidth = panelWidth;
+        layoutHeight = Math.max(boxHeight, (int) Math.ceil(y) + padding);
+        boxImage = null;
+    }
+
+    private static float wrap(AttributedString as, int length, float x, float width, float y, boolean choice, List<Line> out) {
+        LineBreakMeasurer measurer = new LineBreakMeasurer(as.getIterator(), FRC);
+        while (measurer.getPosition() < length) {
+            int start = measurer.getPosition();
+            TextLayout layout = measurer.nextLayout(width);
+            float baseline = y + layout.getAscent();
+            out.add(new Line(layout, start, measurer.getPosition(), x, baseline, choice));
+            y = baseline + layout.getDescent() + layout.getLeading();
+        }
+        return y;
     }
 
-    /** Returns the current text. For debugging purposes. 
-     * 
+    /** Returns the current text. For debugging purposes.
+     *
     */
     public String getText() {
         return text;
@@ -0,0 +1,93 @@
+package scenes;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+/**
+ * HudEntity: health and points drawn in the top-right corner of the game area.
+ * Numbers are written into reused char arrays and drawn with Graphics2D.drawChars, so a value
+ * that changes every frame doesn't build a String.
+ */
+public class HudEntity {
+    private static final String HEALTH_LABEL = "Health ";
+    private static final String POINTS_LABEL = "Points ";
+    private static final String DIED_LABEL = "Player Died.";
+
+    private final Font font = new Font(Font.DIALOG, Font.BOLD, 16);
+    private final Color labelColor = Color.LIGHT_GRAY;
+    private final Color valueColor = Color.WHITE;
+    private final Color deadColor = new Color(230, 90, 90);
+    private final int padding = 12;
+    private final int gap = 24;
+
+    private int health = 0;
+    private int points = 0;
+    private boolean visible = true;
+
+    // Digits of the current values (an int is at most 11 characters)
+    private final StringBuilder digits = new StringBuilder(11);
+    private final char[] healthChars = new char[11];
+    private final char[] pointsChars = new char[11];
+
+    public void setHealth(int health) {
+        this.health = health;
+    }
+
+    public void setPoints(int points) {
+        this.points = points;
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void draw(Graphics2D g2, int panelWidth) {
+        if (!visible) return;
+        g2.setFont(font);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        FontMetrics fm = g2.getFontMetrics();
+        int y = padding + fm.getAscent();
+
+        // Right-aligned: "Health 25   Points 0"
+        int healthLen = toChars(health, healthChars);
+        int pointsLen = toChars(points, pointsChars);
+        int pointsW = fm.stringWidth(POINTS_LABEL) + fm.charsWidth(pointsChars, 0, pointsLen);
+        int healthW = (health > 0) ? fm.stringWidth(HEALTH_LABEL) + fm.charsWidth(healthChars, 0, healthLen) : fm.stringWidth(DIED_LABEL);
+        int x = panelWidth - padding - pointsW - gap - healthW;
+
+        if (health > 0) {
+            g2.setColor(labelColor);
+            g2.drawString(HEALTH_LABEL, x, y);
+            x += fm.stringWidth(HEALTH_LABEL);
+            g2.setColor(valueColor);
+            g2.drawChars(healthChars, 0, healthLen, x, y);
+            x += fm.charsWidth(healthChars, 0, healthLen);
+        } else {
+            g2.setColor(deadColor);
+            g2.drawString(DIED_LABEL, x, y);
+            x += fm.stringWidth(DIED_LABEL);
+        }
+        x += gap;
+        g2.setColor(labelColor);
+        g2.drawString(POINTS_LABEL, x, y);
+        x += fm.stringWidth(POINTS_LABEL);
+        g2.setColor(valueColor);
+        g2.drawChars(pointsChars, 0, pointsLen, x, y);
+    }
+
+    // Decimal digits of value into out; returns how many
+    private int toChars(int value, char[] out) {
+        digits.setLength(0);
+        digits.append(value);
+        int len = digits.length();
+        digits.getChars(0, len, out, 0);
+        return len;
+    }
+}
@@ -2,23 +2,62 @@ package scenes;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
+import managers.AssetLoader;
+import managers.ImageManager;
 import managers.LogoManager;
 
 /**
  * LogoEntity: lightweight renderer that displays the currently active logo (from LogoManager).
  * When active it clears the screen with a background color and draws the logo centered and
  * scaled so it occupies the screen while preserving aspect ratio.
+ *
+ * The background and the scaled logo are composed once per panel size into a cached screen-format
+ * image, so each frame is a single unscaled blit. The cache is released when LogoManager hides or
+ * resets the logo.
  */
 public class LogoEntity {
+    /** How the logo is fitted to the panel (aspect ratio is always preserved). */
+    public enum FitMode {
+        COVER,      // fill the panel, cropping the overflow
+        CONTAIN,    // show the whole logo, letterboxed with the background colour
+        NONE        // original size (times scale), centered
+    }
+
     private final LogoManager manager = LogoManager.getInstance();
     private Color backgroundColor = Color.BLACK;
-    private double scale = 1.0; // scale factor for logo rendering
+    private double scale = 1.0; // extra scale factor applied on top of the fit mode
+    private FitMode fitMode = FitMode.COVER;
+    private Color progressColor = Color.WHITE;
 
-    public LogoEntity() { }
+    // Panel-sized frame (background + scaled logo), rebuilt when any of its inputs change
+    private volatile BufferedImage cached = null;
+    private BufferedImage cachedSource = null;
+    private int cachedWidth, cachedHeight;
+
+    public LogoEntity() {
+        manager.addReleaseListener(this::releaseCache);
+    }
 
     public void setBackgroundColor(Color c) {
         this.backgroundColor = (c == null) ? Color.BLACK : c;
+        releaseCache();
+    }
+
+    public void setFitMode(FitMode mode) {
+        this.fitMode = (mode == null) ? FitMode.COVER : mode;
+        releaseCache();
+    }
+
+    public FitMode getFitMode() {
+        return fitMode;
+    }
+
+    public void setScale(double scale) {
+        this.scale = (scale > 0) ? scale : 1.0;
+        releaseCache();
     }
 
     /**
@@ -28,26 +67,106 @@ public class LogoEntity {
     public void draw(Graphics2D g2, int panelWidth, int panelHeight) {
         if (!manager.isActive()) return;
         BufferedImage logo = manager.getLogo();
-        if (logo == null) return;
+        if (logo == null || panelWidth <= 0 || panelHeight <= 0) return;
+
+        BufferedImage frame = cached;
+        if (frame == null || cachedSource != logo || cachedWidth != panelWidth || cachedHeight != panelHeight) {
+            frame = compose(logo, panelWidth, panelHeight);
+            cachedSource = logo;
+            cachedWidth = panelWidth;
+            cachedHeight = panelHeight;
+            cached = frame;
+        }
+        g2.drawImage(frame, 0, 0, null);
+
+        drawLoadingBar(g2, panelWidth, panelHeight);
+    }
 
-        // fill background
-        g2.setColor(backgroundColor);
-        g2.fillRect(0, 0, panelWidth, panelHeight);
 
+    /** Build the panel-sized frame: background fill plus the logo fitted and prescaled once. */
+    private BufferedImage compose(BufferedImage logo, int panelWidth, int panelHeight) {
         int iw = logo.getWidth();
         int ih = logo.getHeight();
-        if (iw <= 0 || ih <= 0) return;
 
-        // Compute scale to cover the panel while preserving aspect ratio (cover behavior)
-       
+        double fit;
+        switch (fitMode) {
+            case COVER:   fit = Math.max((double) panelWidth / iw, (double) panelHeight / ih); break;
+            case CONTAIN: fit = Math.min((double) panelWidth / iw, (double) panelHeight / ih); break;
+            default:      fit = 1.0; break;
+        }
+        int drawW = Math.max(1, (int) Math.round(iw * fit * scale));
+        int drawH = Math.max(1, (int) Math.round(ih * fit * scale));
 
-        int drawW = (int) Math.round(iw * scale);
-        int drawH = (int) Math.round(ih * scale);
+        BufferedImage frame = ImageManager.createCompatibleImage(panelWidth, panelHeight, Transparency.OPAQUE);
+        Graphics2D g = frame.createGraphics();
+        g.setColor(backgroundColor);
+        g.fillRect(0, 0, panelWidth, panelHeight);
+        g.drawImage(scaleImage(logo, drawW, drawH), (panelWidth - drawW) / 2, (panelHeight - drawH) / 2, null);
+        g.dispose();
+        return frame;
+    }
+
+
+    /**
+     * High-quality resize. Downscaling halves the image with bilinear filtering until it is within
+     * 2x of the target, then does one final step, since a single bilinear step from far away skips
+     * source pixels and aliases. Upscaling is a single bicubic step.
+     */
+    private static BufferedImage scaleImage(BufferedImage src, int targetW, int targetH) {
+        BufferedImage current = src;
+        int w = src.getWidth();
+        int h = src.getHeight();
+        if (w == targetW && h == targetH) return src;
+
+        boolean down = targetW < w && targetH < h;
+        do {
+            if (down) {
+                w = Math.max(targetW, w / 2);
+                h = Math.max(targetH, h / 2);
+                if (w < targetW * 2 && h < targetH * 2) {
+                    w = targetW;
+                    h = targetH;
+                }
+            } else {
+                w = targetW;
+                h = targetH;
+            }
+            BufferedImage next = ImageManager.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    down ? RenderingHints.VALUE_INTERPOLATION_BILINEAR : RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (w != targetW || h != targetH);
+        return current;
+    }
 
-        int x = (panelWidth - drawW) / 2;
-        int y = (panelHeight - drawH) / 2;
 
-        g2.drawImage(logo, x, y, drawW, drawH, null);
+    /** Drop the cached frame (called by LogoManager on hide/reset/expiry). */
+    public void releaseCache() {
+        cached = null;
+        cachedSource = null;
+    }
+
+
+    /** Thin progress bar along the bottom while AssetLoader is still working. */
+    private void drawLoadingBar(Graphics2D g2, int panelWidth, int panelHeight) {
+        AssetLoader loader = AssetLoader.getInstance();
+        if (loader.isDone()) return;
+
+        int barW = panelWidth / 3;
+        int barH = 6;
+        int bx = (panelWidth - barW) / 2;
+        int by = panelHeight - 40;
+        g2.setColor(progressColor);
+        g2.drawRect(bx, by, barW, barH);
+        g2.fillRect(bx, by, Math.round(barW * loader.getProgress()), barH);
+    }
+
+    public void setProgressColor(Color c) {
+        this.progressColor = (c == null) ? Color.WHITE : c;
     }
 
 
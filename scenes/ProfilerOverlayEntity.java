@@ -0,0 +1,168 @@
+package scenes;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import managers.FrameProfiler;
+
+/**
+ * ProfilerOverlayEntity: debug overlay for FrameProfiler.
+ * Shows current/avg/p95/p99 frame times, per-phase averages, a rolling stacked graph of the
+ * recent frames (one colour per phase) and a 1ms-bucket histogram. Toggle it with F3.
+ * Text is built in one reused StringBuilder and drawn with Graphics2D.drawChars, so the numbers
+ * don't allocate Strings every frame.
+ */
+public class ProfilerOverlayEntity {
+    private final FrameProfiler profiler = FrameProfiler.getInstance();
+    private final Font font = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private final StringBuilder line = new StringBuilder(64);
+    private char[] chars = new char[64];
+    private boolean visible = false;
+
+    private static final Color[] PHASE_COLORS = {
+        new Color(0x4fc3f7), new Color(0xffb74d), new Color(0x81c784), new Color(0xba68c8), new Color(0xe57373),
+        new Color(0xfff176)
+    };
+
+    private final int padding = 8;
+    private final int graphWidth = FrameProfiler.CAPACITY;   // one pixel per frame
+    private final int graphHeight = 80;
+    private final double graphMaxMs = 33.3;                   // top of graph = two 60 FPS frames
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    public void toggle() {
+        visible = !visible;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void draw(Graphics2D g2) {
+        if (!visible || profiler.getFrameCount() == 0) return;
+        profiler.computeStats();
+
+        g2.setFont(font);
+        FontMetrics fm = g2.getFontMetrics();
+        int lineH = fm.getHeight();
+        int textLines = 2 + FrameProfiler.PHASE_COUNT;
+        int panelW = graphWidth + padding * 2;
+        int panelH = padding * 3 + textLines * lineH + graphHeight * 2;
+        int x = padding;
+        int y = padding;
+
+        Composite old = g2.getComposite();
+        g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.75f));
+        g2.setColor(Color.black);
+        g2.fillRect(x, y, panelW, panelH);
+        g2.setComposite(old);
+
+        // Summary text
+        int tx = x + padding;
+        int ty = y + padding + fm.getAscent();
+        line.setLength(0);
+        line.append("frame  cur ");
+        appendMs(profiler.getCurrentNs());
+        line.append("  avg ");
+        appendMs(profiler.getAverageNs());
+        line.append(" ms");
+        drawLine(g2, tx, ty, Color.white);
+        ty += lineH;
+        line.setLength(0);
+        line.append("       p95 ");
+        appendMs(profiler.getP95Ns());
+        line.append("  p99 ");
+        appendMs(profiler.getP99Ns());
+        line.append("  max ");
+        appendMs(profiler.getMaxNs());
+        drawLine(g2, tx, ty, Color.white);
+        for (int p = 0; p < FrameProfiler.PHASE_COUNT; p++) {
+            ty += lineH;
+            line.setLength(0);
+            line.append(FrameProfiler.getPhaseName(p));
+            while (line.length() < 9) line.append(' ');
+            line.append(" avg ");
+            appendMs(profiler.getPhaseAverageNs(p));
+            line.append(" ms");
+            drawLine(g2, tx, ty, PHASE_COLORS[p]);
+        }
+
+        // Rolling graph: newest frame on the right, phases stacked bottom-up
+        int gx = x + padding;
+        int gy = y + padding * 2 + textLines * lineH;
+        g2.setColor(Color.darkGray);
+        g2.drawRect(gx, gy, graphWidth, graphHeight);
+        int frames = profiler.getFrameCount();
+        for (int age = 0; age < frames; age++) {
+            int col = gx + graphWidth - 1 - age;
+            int base = gy + graphHeight;
+            for (int p = 0; p < FrameProfiler.PHASE_COUNT; p++) {
+                int h = barHeight(profiler.getPhaseNs(p, age));
+                if (h <= 0) continue;
+                g2.setColor(PHASE_COLORS[p]);
+                g2.drawLine(col, base - h, col, base - 1);
+                base -= h;
+            }
+            // Whatever isn't covered by a phase (overlay, waits on the pipeline, ...) in grey
+            int total = barHeight(profiler.getFrameNs(age));
+            int top = gy + graphHeight - total;
+            if (top < base) {
+                g2.setColor(Color.gray);
+                g2.drawLine(col, Math.max(gy, top), col, base - 1);
+            }
+        }
+        // 16.6ms budget line
+        int budgetY = gy + graphHeight - barHeight(16_666_667L);
+        g2.setColor(Color.red);
+        g2.drawLine(gx, budgetY, gx + graphWidth, budgetY);
+
+        // Histogram of frame times in 1ms buckets
+        int hy = gy + graphHeight + padding;
+        int bucketW = graphWidth / FrameProfiler.HISTOGRAM_BUCKETS;
+        int maxBucket = 1;
+        for (int i = 0; i < FrameProfiler.HISTOGRAM_BUCKETS; i++) {
+            maxBucket = Math.max(maxBucket, profiler.getHistogramBucket(i));
+        }
+        for (int i = 0; i < FrameProfiler.HISTOGRAM_BUCKETS; i++) {
+            int h = profiler.getHistogramBucket(i) * (graphHeight - padding) / maxBucket;
+            g2.setColor(i < 17 ? PHASE_COLORS[2] : PHASE_COLORS[4]);   // green within budget, red over
+            g2.fillRect(gx + i * bucketW, hy + graphHeight - padding - h, Math.max(1, bucketW - 1), h);
+        }
+    }
+
+    // Draw the current contents of line (copied into chars; no String is built)
+    private void drawLine(Graphics2D g2, int x, int y, Color color) {
+        int len = line.length();
+        if (chars.length < len) chars = new char[len];
+        line.getChars(0, len, chars, 0);
+        g2.setColor(color);
+        g2.drawChars(chars, 0, len, x, y);
+    }
+
+    // Same as String.format("%5.2f", ms(ns)), appended to line without allocating
+    private void appendMs(long ns) {
+        long hundredths = Math.round(ns / 10_000.0);
+        long whole = hundredths / 100;
+        int frac = (int) (hundredths % 100);
+        int digits = 1;
+        for (long w = whole; w >= 10; w /= 10) digits++;
+        for (int pad = 5 - (digits + 3); pad > 0; pad--) line.append(' ');
+        line.append(whole).append('.');
+        if (frac < 10) line.append('0');
+        line.append(frac);
+    }
+
+    private int barHeight(long ns) {
+        return (int) Math.min(graphHeight, Math.round(ms(ns) / graphMaxMs * graphHeight));
+    }
+
+    private static double ms(long ns) {
+        return ns / 1_000_000.0;
+    }
+}